@@ -0,0 +1,114 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Prim vs Kruskal (and Borůvka for reference) over generated graph shapes. Throughput and
+// average time come from the benchmark modes; BenchmarkRunner adds the GC profiler, which
+// reports the allocation rate per operation. GRID and COMPLETE have no density parameter, so
+// each shape family is its own nested class with only the parameters that change its graph.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public abstract class MSTBenchmark {
+    private Graph graph;
+    private final SolverWorkspace workspace = new SolverWorkspace();
+
+    protected abstract Graph generate();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = generate();
+        // the CSR index is part of the graph, not of a single solve
+        graph.getAdjacency();
+    }
+
+    public static class Sparse extends MSTBenchmark {
+        @Param({"1000", "100000"})
+        public int vertices;
+
+        // average degree for ERDOS_RENYI and DISCONNECTED, attachments per new vertex x2 for POWER_LAW
+        @Param({"4", "32"})
+        public int density;
+
+        @Param({"UNIFORM_SMALL", "UNIFORM_WIDE", "SKEWED"})
+        public GraphGenerator.Weights weights;
+
+        @Param({"ERDOS_RENYI", "POWER_LAW", "DISCONNECTED"})
+        public GraphGenerator.Topology topology;
+
+        @Override
+        protected Graph generate() {
+            return GraphGenerator.generate(topology, vertices, density, weights, 42);
+        }
+    }
+
+    public static class Grid extends MSTBenchmark {
+        @Param({"1000", "100000"})
+        public int vertices;
+
+        @Param({"UNIFORM_SMALL", "UNIFORM_WIDE", "SKEWED"})
+        public GraphGenerator.Weights weights;
+
+        @Override
+        protected Graph generate() {
+            return GraphGenerator.generate(GraphGenerator.Topology.GRID, vertices, 0, weights, 42);
+        }
+    }
+
+    // complete graphs grow quadratically, so they get small vertex counts of their own
+    public static class Complete extends MSTBenchmark {
+        @Param({"1000", "1500"})
+        public int vertices;
+
+        @Param({"UNIFORM_SMALL", "UNIFORM_WIDE", "SKEWED"})
+        public GraphGenerator.Weights weights;
+
+        @Override
+        protected Graph generate() {
+            return GraphGenerator.generate(GraphGenerator.Topology.COMPLETE, vertices, 0, weights, 42);
+        }
+    }
+
+    @Benchmark
+    public MSTResult prim() {
+        return PrimAlgorithm.findMST(graph, MSTMetrics.NONE);
+    }
+
+    @Benchmark
+    public MSTResult kruskal() {
+        return KruskalAlgorithm.findMST(graph, MSTMetrics.NONE);
+    }
+
+    // the same solves with reused buffers; gc.alloc.rate.norm drops to the result arrays
+    @Benchmark
+    public MSTResult primWorkspace() {
+        return PrimAlgorithm.findMST(graph, MSTMetrics.NONE, workspace);
+    }
+
+    @Benchmark
+    public MSTResult kruskalWorkspace() {
+        return KruskalAlgorithm.findMST(graph, MSTMetrics.NONE, workspace);
+    }
+
+    @Benchmark
+    public MSTResult boruvka() {
+        return BoruvkaAlgorithm.findMST(graph, ForkJoinPool.commonPool(), MSTMetrics.NONE);
+    }
+}
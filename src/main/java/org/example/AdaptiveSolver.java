@@ -0,0 +1,84 @@
+package org.example;
+
+import java.util.Locale;
+
+// Picks an engine from the shape of the graph:
+// - big graphs on a multi-core box go to parallel Borůvka, whose phases split across the pool;
+// - sparse graphs go to plain radix-sort Kruskal, since sorting E ~ V edges is cheap;
+// - dense graphs go to Filter-Kruskal when the weights are narrow (few radix passes, many
+//   equal-weight runs), otherwise to Prim, whose heap work grows with V rather than E.
+// The weight range comes from a strided sample, so selection costs O(1) per graph.
+public class AdaptiveSolver implements MSTSolver {
+    static final int PARALLEL_MIN_EDGES = 1 << 20;
+    static final int NARROW_WEIGHT_RANGE = 1 << 16;
+    private static final int WEIGHT_SAMPLES = 4096;
+
+    private final int parallelism;
+
+    public AdaptiveSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public AdaptiveSolver(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String getName() {
+        return "adaptive";
+    }
+
+    @Override
+    public MSTResult solve(Graph graph, MSTMetrics metrics) {
+        return select(graph).getEngine().solve(graph, metrics);
+    }
+
+    public Selection select(Graph graph) {
+        int vertices = graph.getVertices();
+        int edgeCount = graph.getEdgeCount();
+        if (vertices <= 1 || edgeCount == 0) {
+            return new Selection(Engine.KRUSKAL, "trivial graph");
+        }
+        double density = (double) edgeCount / vertices;
+        if (parallelism > 1 && edgeCount >= PARALLEL_MIN_EDGES) {
+            return new Selection(Engine.BORUVKA, String.format(Locale.ROOT, "E=%d >= %d with %d cores", edgeCount,
+                    PARALLEL_MIN_EDGES, parallelism));
+        }
+        if (density < KruskalAlgorithm.FILTER_MIN_DENSITY) {
+            return new Selection(Engine.KRUSKAL, String.format(Locale.ROOT, "sparse, E/V=%.1f", density));
+        }
+        long range = sampledWeightRange(graph);
+        if (range <= NARROW_WEIGHT_RANGE) {
+            return new Selection(Engine.FILTER_KRUSKAL,
+                    String.format(Locale.ROOT, "dense, E/V=%.1f, weight range %d", density, range));
+        }
+        return new Selection(Engine.PRIM,
+                String.format(Locale.ROOT, "dense, E/V=%.1f, wide weight range %d", density, range));
+    }
+
+    private static long sampledWeightRange(Graph graph) {
+        int edgeCount = graph.getEdgeCount();
+        int step = Math.max(1, edgeCount / WEIGHT_SAMPLES);
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int e = 0; e < edgeCount; e += step) {
+            int weight = graph.getWeight(e);
+            min = Math.min(min, weight);
+            max = Math.max(max, weight);
+        }
+        return (long) max - min;
+    }
+
+    public static final class Selection {
+        private final Engine engine;
+        private final String reason;
+
+        private Selection(Engine engine, String reason) {
+            this.engine = engine;
+            this.reason = reason;
+        }
+
+        public Engine getEngine() { return engine; }
+        public String getReason() { return reason; }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+// One algorithm's outcome on one graph, as written to output.json and summary.csv. MST edges
+// are kept as graph edge ids and resolved against the graph only when they are written.
+public class AlgorithmReport {
+    private final Graph graph;
+    private final MSTResult result;
+    private final int[] edgeIds;
+    private final List<Edge> edges; // used when the result carries no edge ids
+    private final TimingHarness.Measurement<?> timing;
+
+    // algorithm-specific detail, in output order
+    private final List<String> counterNames = new ArrayList<>();
+    private final List<Long> counterValues = new ArrayList<>();
+    private final List<String> seriesNames = new ArrayList<>();
+    private final List<int[]> seriesValues = new ArrayList<>();
+
+    public AlgorithmReport(Graph graph, MSTResult result, TimingHarness.Measurement<?> timing) {
+        this.graph = graph;
+        this.result = result;
+        this.edgeIds = result.getEdgeIds();
+        this.edges = result.getEdges();
+        this.timing = timing;
+    }
+
+    public AlgorithmReport counter(String name, long value) {
+        counterNames.add(name);
+        counterValues.add(value);
+        return this;
+    }
+
+    public AlgorithmReport series(String name, int[] values) {
+        seriesNames.add(name);
+        seriesValues.add(values);
+        return this;
+    }
+
+    public String getAlgorithm() { return result.getAlgorithm(); }
+    public Graph getGraph() { return graph; }
+    public MSTResult getResult() { return result; }
+    public long getTotalCost() { return result.getTotalCost(); }
+    public double getTotalWeight() { return result.getTotalWeight(); }
+    public boolean hasCostOverflow() { return result.hasCostOverflow(); }
+    public long getOperations() { return result.getOperations(); }
+    public TimingHarness.Measurement<?> getTiming() { return timing; }
+
+    // the integral total even when it overflows a long
+    public BigInteger getExactTotalCost() {
+        return result.hasCostOverflow()
+                ? graph.sumExactWeights(result.getEdgeIds())
+                : BigInteger.valueOf(result.getTotalCost());
+    }
+
+    // execution_time_ms is the median of the measured runs
+    public double getExecutionTimeMs() {
+        return timing.getMedianMs();
+    }
+
+    public int getMstEdgeCount() {
+        return edgeIds != null ? edgeIds.length : edges.size();
+    }
+
+    public int getMstSource(int i) {
+        return edgeIds != null ? graph.getSource(edgeIds[i]) : edges.get(i).getSource();
+    }
+
+    public int getMstDestination(int i) {
+        return edgeIds != null ? graph.getDestination(edgeIds[i]) : edges.get(i).getDestination();
+    }
+
+    // exact weights; getMstWeight only for INT and LONG graphs
+    public long getMstWeight(int i) {
+        return edgeIds != null ? graph.getLongWeight(edgeIds[i]) : edges.get(i).getLongWeight();
+    }
+
+    public double getMstDoubleWeight(int i) {
+        return edgeIds != null ? graph.getDoubleWeight(edgeIds[i]) : edges.get(i).getDoubleWeight();
+    }
+
+    public int getCounterCount() { return counterNames.size(); }
+    public String getCounterName(int i) { return counterNames.get(i); }
+    public long getCounterValue(int i) { return counterValues.get(i); }
+    public int getSeriesCount() { return seriesNames.size(); }
+    public String getSeriesName(int i) { return seriesNames.get(i); }
+    public int[] getSeriesValues(int i) { return seriesValues.get(i); }
+}
@@ -0,0 +1,132 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Solves many graphs concurrently: each graph's Prim, Kruskal and Borůvka runs are separate
+// tasks on the executor. Decoding happens on the calling thread and stops while maxInFlight
+// graphs are pending, which bounds memory. Results are written strictly in graph_id order.
+public class BatchRunner implements AutoCloseable {
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final TimingHarness harness;
+    private final ResultCache cache; // may be null
+
+    public BatchRunner(ExecutorService executor, int maxInFlight, TimingHarness harness) {
+        this(executor, maxInFlight, harness, null);
+    }
+
+    public BatchRunner(ExecutorService executor, int maxInFlight, TimingHarness harness, ResultCache cache) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive, got " + maxInFlight);
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.harness = harness;
+        this.cache = cache;
+    }
+
+    public static BatchRunner create(boolean virtualThreads, int threads, int maxInFlight) {
+        return create(virtualThreads, threads, maxInFlight, TimingHarness.SINGLE_RUN);
+    }
+
+    // virtual threads suit mixed workloads; a fixed platform pool caps CPU-bound parallelism at threads
+    public static BatchRunner create(boolean virtualThreads, int threads, int maxInFlight, TimingHarness harness) {
+        return create(virtualThreads, threads, maxInFlight, harness, null);
+    }
+
+    public static BatchRunner create(boolean virtualThreads, int threads, int maxInFlight, TimingHarness harness,
+                                     ResultCache cache) {
+        ExecutorService executor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads);
+        return new BatchRunner(executor, maxInFlight, harness, cache);
+    }
+
+    public void run(Iterator<Graph> graphs, ResultWriter writer) throws IOException, InterruptedException {
+        ArrayDeque<CompletableFuture<GraphResult>> pending = new ArrayDeque<>();
+        int graphId = 0;
+        try {
+            while (graphs.hasNext()) {
+                // backpressure: no new graph is decoded until a slot frees up
+                while (pending.size() >= maxInFlight) {
+                    writer.write(await(pending.removeFirst()));
+                }
+                pending.addLast(submit(++graphId, graphs.next()));
+                // flush whatever already finished at the head, keeping graph_id order
+                while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+                    writer.write(await(pending.removeFirst()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                writer.write(await(pending.removeFirst()));
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private CompletableFuture<GraphResult> submit(int graphId, Graph graph) {
+        // cached graphs complete immediately and never reach the executor
+        String key = cache != null ? ResultCache.key(graph, harness) : null;
+        if (key != null) {
+            ResultCache.Entry cached = cache.get(key, graph);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(Main.cachedResult(graphId, graph, cached));
+            }
+        }
+        CompletableFuture<AlgorithmReport> prim =
+                CompletableFuture.supplyAsync(() -> Main.solvePrim(graph, harness), executor);
+        CompletableFuture<AlgorithmReport> kruskal =
+                CompletableFuture.supplyAsync(() -> Main.solveKruskal(graph, harness), executor);
+        CompletableFuture<AlgorithmReport> boruvka =
+                CompletableFuture.supplyAsync(() -> Main.solveBoruvka(graph, harness), executor);
+        return CompletableFuture.allOf(prim, kruskal, boruvka)
+                .thenApply(done -> {
+                    GraphResult result = new GraphResult(graphId, graph, prim.join(), kruskal.join(), boruvka.join(),
+                            Main.SELECTOR.select(graph), key != null ? ResultCache.Status.MISS : ResultCache.Status.OFF);
+                    if (key != null) {
+                        cache.put(key, result);
+                    }
+                    return result;
+                });
+    }
+
+    static <T> T await(CompletableFuture<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Graph solve failed", cause);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Graph solve was cancelled", e);
+        }
+    }
+
+    // an interrupt while waiting stops the remaining solves and stays set for the caller
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
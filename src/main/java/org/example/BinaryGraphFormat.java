@@ -0,0 +1,275 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Single-graph binary file (.mstg), little-endian throughout:
+//   header (64 bytes): magic "MSTG", version, flags, vertices, edge count (long),
+//                      name table offset (long, 0 = none), CSR offset (long, 0 = none),
+//                      exact weights offset (long, 0 = int weights; version 2), reserved
+//   edges at byte 64:  sources[E], destinations[E], weights[E]
+//   exact (optional):  long or double weights[E] of LONG/DOUBLE graphs, whose weights[E] hold ranks
+//   CSR (optional):    offsets[V + 1], adjacentVertices[2E], adjacentEdges[2E]
+//   names (optional):  count, then per name its UTF-8 length and bytes
+// load() maps every int section with FileChannel.map and wraps it as an IntBuffer, so the
+// graph is usable without reading or copying the edges; pages fault in as they are touched.
+public class BinaryGraphFormat {
+    public static final String EXTENSION = ".mstg";
+
+    private static final int MAGIC = 0x4753544D; // "MSTG" read as a little-endian int
+    private static final int VERSION = 2; // version 1 files (int weights only) still load
+    private static final int FLAG_ADJACENCY = 1;
+    private static final int FLAG_NAMES = 2;
+    private static final int FLAG_LONG_WEIGHTS = 4;
+    private static final int FLAG_DOUBLE_WEIGHTS = 8;
+    private static final int HEADER_BYTES = 64;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    public static void write(Graph graph, Path path) throws IOException {
+        write(graph, path, true);
+    }
+
+    // includeAdjacency stores the CSR index so loaders skip building it (about 16 extra bytes per edge)
+    public static void write(Graph graph, Path path, boolean includeAdjacency) throws IOException {
+        int vertices = graph.getVertices();
+        int edgeCount = graph.getEdgeCount();
+        List<String> names = graph.getNodeNames();
+        boolean hasNames = names != null && !names.isEmpty();
+
+        Graph.WeightType weightType = graph.getWeightType();
+        boolean exact = weightType != Graph.WeightType.INT;
+
+        long edgesBytes = 3L * edgeCount * Integer.BYTES;
+        long exactOffset = exact ? HEADER_BYTES + edgesBytes : 0;
+        long exactBytes = exact ? (long) edgeCount * Long.BYTES : 0;
+        long csrOffset = includeAdjacency ? HEADER_BYTES + edgesBytes + exactBytes : 0;
+        long csrBytes = includeAdjacency ? (vertices + 1L + 4L * edgeCount) * Integer.BYTES : 0;
+        long namesOffset = hasNames ? HEADER_BYTES + edgesBytes + exactBytes + csrBytes : 0;
+        int weightFlags = switch (weightType) {
+            case INT -> 0;
+            case LONG -> FLAG_LONG_WEIGHTS;
+            case DOUBLE -> FLAG_DOUBLE_WEIGHTS;
+        };
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt((includeAdjacency ? FLAG_ADJACENCY : 0) | (hasNames ? FLAG_NAMES : 0) | weightFlags)
+                    .putInt(vertices)
+                    .putLong(edgeCount)
+                    .putLong(namesOffset)
+                    .putLong(csrOffset)
+                    .putLong(exactOffset);
+            buffer.position(HEADER_BYTES);
+
+            for (int e = 0; e < edgeCount; e++) {
+                putInt(channel, buffer, graph.getSource(e));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                putInt(channel, buffer, graph.getDestination(e));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                putInt(channel, buffer, graph.getWeight(e));
+            }
+            if (weightType == Graph.WeightType.LONG) {
+                for (int e = 0; e < edgeCount; e++) {
+                    putLong(channel, buffer, graph.getLongWeight(e));
+                }
+            } else if (weightType == Graph.WeightType.DOUBLE) {
+                for (int e = 0; e < edgeCount; e++) {
+                    putLong(channel, buffer, Double.doubleToLongBits(graph.getDoubleWeight(e)));
+                }
+            }
+
+            if (includeAdjacency) {
+                Graph.Adjacency adjacency = graph.getAdjacency();
+                for (int v = 0; v < vertices; v++) {
+                    putInt(channel, buffer, adjacency.getStart(v));
+                }
+                putInt(channel, buffer, vertices == 0 ? 0 : adjacency.getEnd(vertices - 1));
+                int slots = 2 * edgeCount;
+                for (int slot = 0; slot < slots; slot++) {
+                    putInt(channel, buffer, adjacency.getAdjacentVertex(slot));
+                }
+                for (int slot = 0; slot < slots; slot++) {
+                    putInt(channel, buffer, adjacency.getAdjacentEdge(slot));
+                }
+            }
+
+            if (hasNames) {
+                putInt(channel, buffer, names.size());
+                for (String name : names) {
+                    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                    putInt(channel, buffer, bytes.length);
+                    int written = 0;
+                    while (written < bytes.length) {
+                        if (!buffer.hasRemaining()) {
+                            drain(channel, buffer);
+                        }
+                        int chunk = Math.min(buffer.remaining(), bytes.length - written);
+                        buffer.put(bytes, written, chunk);
+                        written += chunk;
+                    }
+                }
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    // the returned graph stays valid after the file channel is closed; the mapping is released
+    // when the graph becomes unreachable
+    public static Graph load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException(path + " is too short to be a binary graph file");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a binary graph file");
+            }
+            int version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException(path + " has unsupported format version " + version);
+            }
+            int flags = header.getInt();
+            int vertices = header.getInt();
+            long edgeCount = header.getLong();
+            long namesOffset = header.getLong();
+            long csrOffset = header.getLong();
+            long exactOffset = version >= 2 ? header.getLong() : 0;
+            if (vertices < 0 || edgeCount < 0 || edgeCount > Integer.MAX_VALUE / 2) {
+                throw new IOException(path + " declares " + vertices + " vertices and " + edgeCount
+                        + " edges, which do not fit in int edge ids");
+            }
+
+            int edges = (int) edgeCount;
+            IntBuffer sources = mapInts(channel, HEADER_BYTES, edges, size);
+            IntBuffer destinations = mapInts(channel, HEADER_BYTES + 4L * edges, edges, size);
+            IntBuffer weights = mapInts(channel, HEADER_BYTES + 8L * edges, edges, size);
+
+            Graph.Adjacency adjacency = null;
+            if ((flags & FLAG_ADJACENCY) != 0) {
+                IntBuffer offsets = mapInts(channel, csrOffset, vertices + 1, size);
+                IntBuffer adjacentVertices = mapInts(channel, csrOffset + 4L * (vertices + 1), 2 * edges, size);
+                IntBuffer adjacentEdges = mapInts(channel, csrOffset + 4L * (vertices + 1 + 2L * edges), 2 * edges, size);
+                adjacency = Graph.Adjacency.wrap(offsets, adjacentVertices, adjacentEdges);
+            }
+
+            Graph.WeightType weightType = (flags & FLAG_DOUBLE_WEIGHTS) != 0 ? Graph.WeightType.DOUBLE
+                    : (flags & FLAG_LONG_WEIGHTS) != 0 ? Graph.WeightType.LONG
+                    : Graph.WeightType.INT;
+            LongBuffer exactWeights = weightType != Graph.WeightType.INT ? mapLongs(channel, exactOffset, edges, size) : null;
+
+            List<String> names = (flags & FLAG_NAMES) != 0 ? readNames(channel, namesOffset, size) : null;
+            return Graph.wrap(vertices, names, sources, destinations, weights, weightType, exactWeights, adjacency);
+        }
+    }
+
+    public static boolean isBinaryGraphFile(String path) {
+        return path.endsWith(EXTENSION);
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long offset, int count, long fileSize) throws IOException {
+        long bytes = 4L * count;
+        if (offset < HEADER_BYTES || offset + bytes > fileSize) {
+            throw new IOException("Section at byte " + offset + " (" + bytes + " bytes) lies outside the file");
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Section at byte " + offset + " exceeds the 2 GB limit of a single mapping");
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes);
+        return mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private static LongBuffer mapLongs(FileChannel channel, long offset, int count, long fileSize) throws IOException {
+        long bytes = 8L * count;
+        if (offset < HEADER_BYTES || offset + bytes > fileSize) {
+            throw new IOException("Section at byte " + offset + " (" + bytes + " bytes) lies outside the file");
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Section at byte " + offset + " exceeds the 2 GB limit of a single mapping");
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes);
+        return mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    // names are decoded onto the heap; the table is O(V) and only read once
+    private static List<String> readNames(FileChannel channel, long offset, long fileSize) throws IOException {
+        if (offset < HEADER_BYTES || offset + Integer.BYTES > fileSize) {
+            throw new IOException("Name table at byte " + offset + " lies outside the file");
+        }
+        ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, offset, fileSize - offset).order(ByteOrder.LITTLE_ENDIAN);
+        int count = table.getInt();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = table.getInt();
+            byte[] bytes = new byte[length];
+            table.get(bytes);
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return names;
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            drain(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void putLong(FileChannel channel, ByteBuffer buffer, long value) throws IOException {
+        if (buffer.remaining() < Long.BYTES) {
+            drain(channel, buffer);
+        }
+        buffer.putLong(value);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // converts a JSON input into .mstg files; graph 1 goes to the given path and any further
+    // graphs to numbered siblings (out.mstg, out-2.mstg, ...)
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: BinaryGraphFormat <input.json> <output.mstg> [--no-adjacency]");
+            return;
+        }
+        boolean includeAdjacency = !(args.length > 2 && args[2].equals("--no-adjacency"));
+        try (JSONHandler.GraphIterator graphs = JSONHandler.openGraphs(args[0])) {
+            int graphId = 0;
+            while (graphs.hasNext()) {
+                Graph graph = graphs.next();
+                graphId++;
+                Path output = Path.of(graphId == 1 ? args[1] : numbered(args[1], graphId));
+                write(graph, output, includeAdjacency);
+                System.out.println("Wrote " + output);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Failed to convert " + args[0] + ": " + e.getMessage());
+        }
+    }
+
+    private static String numbered(String path, int graphId) {
+        int dot = path.lastIndexOf('.');
+        return dot > 0 ? path.substring(0, dot) + "-" + graphId + path.substring(dot) : path + "-" + graphId;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+// Parallel Borůvka: every phase finds the cheapest edge leaving each component in
+// parallel, then contracts components through a ConcurrentDisjointSet. Ties are broken
+// by edge id, so the chosen edges never form a cycle and the MST is deterministic.
+public class BoruvkaAlgorithm {
+    private static final int CHUNK_SIZE = 4096; // edges or vertices handled by one fork-join leaf
+    private static final long NO_EDGE = Long.MAX_VALUE;
+
+    public static MSTResult findMST(Graph graph) {
+        return findMST(graph, ForkJoinPool.commonPool());
+    }
+
+    public static MSTResult findMST(Graph graph, ForkJoinPool pool) {
+        return findMST(graph, pool, new CountingMetrics());
+    }
+
+    public static MSTResult findMST(Graph graph, ForkJoinPool pool, MSTMetrics metrics) {
+        MSTSolveEvent event = MSTSolveEvent.start();
+        return MSTSolveEvent.finish(event, graph, solve(graph, pool, metrics));
+    }
+
+    private static MSTResult solve(Graph graph, ForkJoinPool pool, MSTMetrics metrics) {
+        int vertices = graph.getVertices();
+        int edgeCount = graph.getEdgeCount();
+        if (vertices == 0 || edgeCount == 0) {
+            return MSTResult.empty("boruvka", vertices, metrics);
+        }
+
+        ConcurrentDisjointSet sets = new ConcurrentDisjointSet(vertices);
+        // packed (weight, edge id) of the cheapest edge leaving each component root
+        AtomicLongArray cheapest = new AtomicLongArray(vertices);
+        boolean[] accepted = new boolean[edgeCount];
+
+        // edges still crossing components; internal edges are dropped as phases go by
+        int[] active = new int[edgeCount];
+        int[] nextActive = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            active[e] = e;
+        }
+        int activeCount = edgeCount;
+
+        List<Edge> mstEdges = new ArrayList<>(vertices - 1);
+        int[] mstEdgeIds = new int[vertices - 1];
+        List<Integer> componentsPerPhase = new ArrayList<>();
+        List<Integer> edgesPerPhase = new ArrayList<>();
+
+        // operation counters, summed from the parallel leaves and handed to metrics at the end
+        LongAdder comparisons = new LongAdder(); // cheapest-edge key comparisons
+        LongAdder findCalls = new LongAdder();
+        LongAdder unionCalls = new LongAdder();
+
+        int components = vertices;
+        while (activeCount > 0 && components > 1) {
+            int[] scan = active;
+            int[] survivors = nextActive;
+            int scanCount = activeCount;
+            AtomicInteger survivorCount = new AtomicInteger();
+
+            long phase = metrics.phaseStart();
+            forEachChunk(pool, vertices, (from, to) -> {
+                for (int v = from; v < to; v++) {
+                    cheapest.set(v, NO_EDGE);
+                }
+            });
+
+            // 1) cheapest outgoing edge per component, compacting away internal edges
+            forEachChunk(pool, scanCount, (from, to) -> {
+                int[] kept = new int[to - from];
+                int keptCount = 0;
+                long localComparisons = 0;
+                for (int i = from; i < to; i++) {
+                    int edge = scan[i];
+                    int root1 = sets.find(graph.getSource(edge));
+                    int root2 = sets.find(graph.getDestination(edge));
+                    if (root1 == root2) {
+                        continue;
+                    }
+                    kept[keptCount++] = edge;
+                    long key = ((long) graph.getWeight(edge) << 32) | edge;
+                    localComparisons += offerCheapest(cheapest, root1, key);
+                    localComparisons += offerCheapest(cheapest, root2, key);
+                }
+                int offset = survivorCount.getAndAdd(keptCount);
+                System.arraycopy(kept, 0, survivors, offset, keptCount);
+                comparisons.add(localComparisons);
+                findCalls.add(2L * (to - from));
+            });
+            activeCount = survivorCount.get();
+            metrics.phaseEnd(MSTMetrics.Phase.CHEAPEST_EDGE, phase);
+            if (activeCount == 0) {
+                break;
+            }
+
+            // 2) contract: link both ends of every chosen edge
+            phase = metrics.phaseStart();
+            forEachChunk(pool, vertices, (from, to) -> {
+                long localUnions = 0;
+                for (int v = from; v < to; v++) {
+                    long key = cheapest.get(v);
+                    if (key == NO_EDGE) {
+                        continue;
+                    }
+                    int edge = (int) key;
+                    localUnions++;
+                    if (sets.union(graph.getSource(edge), graph.getDestination(edge))) {
+                        accepted[edge] = true;
+                    }
+                }
+                unionCalls.add(localUnions);
+                findCalls.add(2 * localUnions);
+            });
+
+            // 3) collect the accepted edges in vertex order so the output is deterministic
+            int added = 0;
+            for (int v = 0; v < vertices; v++) {
+                long key = cheapest.get(v);
+                if (key != NO_EDGE && accepted[(int) key]) {
+                    int edge = (int) key;
+                    accepted[edge] = false;
+                    mstEdgeIds[mstEdges.size()] = edge;
+                    mstEdges.add(graph.getEdge(edge));
+                    added++;
+                }
+            }
+            metrics.phaseEnd(MSTMetrics.Phase.CONTRACT, phase);
+            componentsPerPhase.add(components);
+            edgesPerPhase.add(added);
+            components -= added;
+
+            active = survivors;
+            nextActive = scan;
+        }
+
+        metrics.add(MSTMetrics.Counter.COMPARISONS, comparisons.sum());
+        metrics.add(MSTMetrics.Counter.FIND_CALLS, findCalls.sum());
+        metrics.add(MSTMetrics.Counter.UNION_CALLS, unionCalls.sum());
+        // components left when no edge crosses between them are the trees of the forest
+        int[] componentIds = new int[vertices];
+        int componentCount = sets.labelComponents(componentIds);
+        return new MSTResult("boruvka", graph, mstEdges, Arrays.copyOf(mstEdgeIds, mstEdges.size()), componentIds,
+                componentCount, metrics, toArray(componentsPerPhase), toArray(edgesPerPhase));
+    }
+
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    // splits [0, count) into CHUNK_SIZE ranges on the pool; small inputs stay on the calling thread
+    private static void forEachChunk(ForkJoinPool pool, int count, RangeBody body) {
+        if (count <= CHUNK_SIZE) {
+            body.run(0, count);
+            return;
+        }
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .forEach(chunk -> body.run(chunk * CHUNK_SIZE, Math.min((chunk + 1) * CHUNK_SIZE, count))))
+                .join();
+    }
+
+    // lowers cheapest[root] to key when smaller; returns the number of key comparisons made
+    private static int offerCheapest(AtomicLongArray cheapest, int root, long key) {
+        int compared = 0;
+        long current = cheapest.get(root);
+        while (true) {
+            compared++;
+            if (key >= current) {
+                return compared;
+            }
+            long witness = cheapest.compareAndExchange(root, current, key);
+            if (witness == current) {
+                return compared;
+            }
+            current = witness;
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
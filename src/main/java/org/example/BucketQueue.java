@@ -0,0 +1,122 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Dial-style bucket queue for keys in a small range [minKey, maxKey]: one intrusive doubly
+// linked list of vertices per key, so insert and decreaseKey are O(1). extractMin scans up
+// from a cursor at the lowest possibly non-empty bucket. Prim's keys are not monotone, so
+// an insert below the cursor moves it back down; each extraction scans at most the key range,
+// which is why Prim only picks this queue for narrow ranges.
+public class BucketQueue implements VertexQueue {
+    private static final int NONE = -1;
+
+    private int minKey;
+    private int[] heads; // bucket -> first vertex, NONE when empty; may be longer than the range
+    private final int[] next;  // vertex -> next vertex in its bucket
+    private final int[] prev;  // vertex -> previous vertex in its bucket, NONE at the head
+    private final int[] keys;
+    private final boolean[] queued;
+    private int cursor; // no bucket below it holds a vertex
+    private int size;
+
+    public BucketQueue(int capacity, int minKey, int maxKey) {
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.keys = new int[capacity];
+        this.queued = new boolean[capacity];
+        this.heads = new int[0];
+        reset(minKey, maxKey);
+    }
+
+    // re-keys an empty queue for [minKey, maxKey], keeping the buckets when they are enough
+    public void reset(int minKey, int maxKey) {
+        int range = Math.toIntExact((long) maxKey - minKey + 1);
+        if (heads.length < range) {
+            heads = new int[range];
+            Arrays.fill(heads, NONE);
+        }
+        this.minKey = minKey;
+        this.cursor = heads.length;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public int range() {
+        return heads.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int vertex) {
+        return queued[vertex];
+    }
+
+    @Override
+    public int keyOf(int vertex) {
+        return keys[vertex];
+    }
+
+    @Override
+    public void insert(int vertex, int key) {
+        keys[vertex] = key;
+        queued[vertex] = true;
+        link(vertex, key - minKey);
+        size++;
+    }
+
+    @Override
+    public void decreaseKey(int vertex, int key) {
+        unlink(vertex, keys[vertex] - minKey);
+        keys[vertex] = key;
+        link(vertex, key - minKey);
+    }
+
+    @Override
+    public int extractMin() {
+        while (heads[cursor] == NONE) {
+            cursor++;
+        }
+        int vertex = heads[cursor];
+        unlink(vertex, cursor);
+        queued[vertex] = false;
+        size--;
+        return vertex;
+    }
+
+    @Override
+    public void clear() {
+        while (size > 0) {
+            extractMin();
+        }
+    }
+
+    private void link(int vertex, int bucket) {
+        int head = heads[bucket];
+        next[vertex] = head;
+        prev[vertex] = NONE;
+        if (head != NONE) {
+            prev[head] = vertex;
+        }
+        heads[bucket] = vertex;
+        if (bucket < cursor) {
+            cursor = bucket;
+        }
+    }
+
+    private void unlink(int vertex, int bucket) {
+        if (prev[vertex] == NONE) {
+            heads[bucket] = next[vertex];
+        } else {
+            next[prev[vertex]] = next[vertex];
+        }
+        if (next[vertex] != NONE) {
+            prev[next[vertex]] = prev[vertex];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+// Lock-free union-find for many threads. union links the lower root id under the higher one
+// with a CAS, so every parent pointer goes to a larger id: concurrent unions cannot form a
+// cycle, and find is wait-free, reaching its root in at most size steps whatever other
+// threads do. Path halving is best effort; a failed halving CAS is simply ignored.
+public class ConcurrentDisjointSet {
+    private static final int CHUNK_SIZE = 4096; // edges handled by one fork-join leaf
+
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentDisjointSet(int size) {
+        parent = new AtomicIntegerArray(size);
+        for (int v = 0; v < size; v++) {
+            parent.set(v, v);
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+
+    public int find(int vertex) {
+        while (true) {
+            int p = parent.get(vertex);
+            if (p == vertex) {
+                return vertex;
+            }
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(vertex, p, grandparent);
+            }
+            vertex = grandparent;
+        }
+    }
+
+    // linearizable: on differing roots, rootA is re-checked to still be a root, so the sets were
+    // apart at that moment
+    public boolean connected(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return true;
+            }
+            if (parent.get(rootA) == rootA) {
+                return false;
+            }
+        }
+    }
+
+    // false when a and b were already in one set; exactly one of racing unions of the same pair wins
+    public boolean union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return false;
+            }
+            int low = Math.min(rootA, rootB);
+            int high = Math.max(rootA, rootB);
+            if (parent.compareAndSet(low, low, high)) {
+                return true;
+            }
+        }
+    }
+
+    // unions the endpoints of every graph edge on the pool; returns how many unions joined two sets
+    public int unionAll(Graph graph, ForkJoinPool pool) {
+        int edgeCount = graph.getEdgeCount();
+        if (edgeCount <= CHUNK_SIZE) {
+            return unionRange(graph, 0, edgeCount);
+        }
+        int chunks = (edgeCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .map(chunk -> unionRange(graph, chunk * CHUNK_SIZE, Math.min((chunk + 1) * CHUNK_SIZE, edgeCount)))
+                .sum()).join();
+    }
+
+    private int unionRange(Graph graph, int from, int to) {
+        int joined = 0;
+        for (int e = from; e < to; e++) {
+            if (union(graph.getSource(e), graph.getDestination(e))) {
+                joined++;
+            }
+        }
+        return joined;
+    }
+
+    // numbers the sets 0, 1, ... in order of their lowest vertex, as DisjointSet does; returns
+    // the count. Call it once the unions are done.
+    public int labelComponents(int[] labels) {
+        int size = parent.length();
+        Arrays.fill(labels, 0, size, -1);
+        int labelled = 0;
+        for (int v = 0; v < size; v++) {
+            int root = find(v);
+            if (labels[root] < 0) {
+                labels[root] = labelled++;
+            }
+            labels[v] = labels[root];
+        }
+        return labelled;
+    }
+}
@@ -0,0 +1,39 @@
+package org.example;
+
+// Long counters and per-phase wall-clock time for one solve. Not thread-safe: parallel
+// algorithms sum their workers' counts and add them from the coordinating thread.
+public class CountingMetrics implements MSTMetrics {
+    private final long[] counters = new long[Counter.values().length];
+    private final long[] phaseNanos = new long[Phase.values().length];
+
+    @Override
+    public void increment(Counter counter) {
+        counters[counter.ordinal()]++;
+    }
+
+    @Override
+    public void add(Counter counter, long delta) {
+        counters[counter.ordinal()] += delta;
+    }
+
+    @Override
+    public long phaseStart() {
+        return System.nanoTime();
+    }
+
+    // a phase entered several times (e.g. once per Filter-Kruskal partition) accumulates
+    @Override
+    public void phaseEnd(Phase phase, long start) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+    }
+
+    @Override
+    public long get(Counter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    @Override
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+}
@@ -0,0 +1,128 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Sequential union-find over 0..size-1: union by rank, iterative find with path halving, so
+// deep trees cannot overflow the stack. Rank fits a byte, since it never exceeds log2(size).
+// Not thread-safe, except that root() never writes and may run on many threads between
+// unions. ConcurrentDisjointSet is the lock-free version.
+public class DisjointSet {
+    private int[] parent;
+    private byte[] rank;
+    private int size;
+    private int count; // number of sets
+
+    public DisjointSet(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        reset(size);
+    }
+
+    // back to size singletons, reusing the arrays when they are large enough
+    public void reset(int size) {
+        if (parent.length < size) {
+            parent = new int[size];
+            rank = new byte[size];
+        } else {
+            Arrays.fill(rank, 0, size, (byte) 0);
+        }
+        for (int v = 0; v < size; v++) {
+            parent[v] = v;
+        }
+        this.size = size;
+        count = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return parent.length;
+    }
+
+    public int getSetCount() {
+        return count;
+    }
+
+    public int find(int vertex) {
+        while (parent[vertex] != vertex) {
+            parent[vertex] = parent[parent[vertex]];
+            vertex = parent[vertex];
+        }
+        return vertex;
+    }
+
+    // find without path compression
+    public int root(int vertex) {
+        while (parent[vertex] != vertex) {
+            vertex = parent[vertex];
+        }
+        return vertex;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    // false when a and b were already in one set
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        link(rootA, rootB);
+        return true;
+    }
+
+    // joins the sets of two distinct roots, for callers that already ran find on both ends
+    public void link(int rootA, int rootB) {
+        if (rank[rootA] < rank[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        } else if (rank[rootA] == rank[rootB]) {
+            rank[rootA]++;
+        }
+        parent[rootB] = rootA;
+        count--;
+    }
+
+    // unions the endpoints of every graph edge; returns how many unions joined two sets
+    public int unionAll(Graph graph) {
+        int joined = 0;
+        for (int e = 0, edgeCount = graph.getEdgeCount(); e < edgeCount; e++) {
+            if (union(graph.getSource(e), graph.getDestination(e))) {
+                joined++;
+            }
+        }
+        return joined;
+    }
+
+    // unions the endpoints of edgeIds[from, to)
+    public int unionAll(Graph graph, int[] edgeIds, int from, int to) {
+        int joined = 0;
+        for (int i = from; i < to; i++) {
+            if (union(graph.getSource(edgeIds[i]), graph.getDestination(edgeIds[i]))) {
+                joined++;
+            }
+        }
+        return joined;
+    }
+
+    // numbers the sets 0, 1, ... in order of their lowest vertex; returns the count. A root's
+    // own slot in labels holds its set's label, so no scratch array is needed.
+    public int labelComponents(int[] labels) {
+        Arrays.fill(labels, 0, size, -1);
+        int labelled = 0;
+        for (int v = 0; v < size; v++) {
+            int root = find(v);
+            if (labels[root] < 0) {
+                labels[root] = labelled++;
+            }
+            labels[v] = labels[root];
+        }
+        return labelled;
+    }
+}
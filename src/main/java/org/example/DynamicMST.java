@@ -0,0 +1,498 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Keeps a minimum spanning forest up to date under edge insertions, deletions and weight
+// changes instead of recomputing it.
+//
+// Tree paths live in a link-cut tree in which every tree edge is a node of its own carrying
+// the edge's (weight, id) key, so the heaviest edge on the path between two vertices costs
+// O(log V) amortised. Insertions and weight decreases apply the cycle property: the new edge
+// replaces the heaviest edge on the cycle it closes if it is lighter.
+// Deletions and weight increases of tree edges cut the edge and pick the cheapest non-tree
+// edge crossing the cut. The two halves are explored in lockstep and only the smaller one is
+// scanned, so the cost is O(s + incident edges of the smaller side s). That is NOT polylog: a
+// cut near the middle of the tree costs Θ(V + E), as much as a recompute. Only insertions and
+// weight decreases are polylog; a polylog deletion needs Holm-de Lichtenberg-Thorup levels.
+public class DynamicMST {
+    private static final byte DELETED = 0;
+    private static final byte NON_TREE = 1;
+    private static final byte TREE = 2;
+    private static final int NONE = -1;
+
+    private final int vertices;
+
+    // edge storage; ids are never reused, deleted edges keep their slot
+    private int[] sources;
+    private int[] destinations;
+    private int[] weights;
+    private byte[] state;
+    private int edgeCount;
+
+    private long totalCost;
+    private int treeEdgeCount;
+
+    // alive edges incident to each vertex; entries are 2 * edge + side, side 0 = source end
+    private final int[][] incident;
+    private final int[] incidentSize;
+    private int[] incidentSlot; // 2 * edge + side -> position in the endpoint's incident list
+
+    // link-cut tree over nodes 0..V-1 (vertices) and V + edge (tree edges)
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private boolean[] flipped;
+    private int[] maxNode; // node with the largest key in the splay subtree
+    private int[] splayStack;
+
+    // replacement search scratch
+    private final int[] mark;
+    private int stamp;
+    private final int[] queueA;
+    private final int[] queueB;
+
+    // graph edge ids are kept as DynamicMST edge ids; treeEdgeIds must be a spanning forest
+    // of the graph that is minimum (e.g. the edge ids of an MST result)
+    public DynamicMST(Graph graph, int[] treeEdgeIds) {
+        if (graph.getWeightType() != Graph.WeightType.INT) {
+            throw new IllegalArgumentException("DynamicMST supports int weights only, graph has "
+                    + graph.getWeightType());
+        }
+        this.vertices = graph.getVertices();
+        int capacity = Math.max(16, graph.getEdgeCount());
+        this.sources = new int[capacity];
+        this.destinations = new int[capacity];
+        this.weights = new int[capacity];
+        this.state = new byte[capacity];
+        this.incident = new int[vertices][];
+        this.incidentSize = new int[vertices];
+        this.incidentSlot = new int[2 * capacity];
+        allocateNodes(vertices + capacity);
+        this.mark = new int[vertices];
+        this.queueA = new int[vertices];
+        this.queueB = new int[vertices];
+
+        for (int e = 0; e < graph.getEdgeCount(); e++) {
+            addEdgeRecord(graph.getSource(e), graph.getDestination(e), graph.getWeight(e));
+        }
+        for (int e : treeEdgeIds) {
+            if (state[e] == TREE || connected(sources[e], destinations[e])) {
+                throw new IllegalArgumentException("Tree edge " + e + " closes a cycle; the seed is not a forest");
+            }
+            makeTree(e);
+        }
+    }
+
+    public static DynamicMST of(Graph graph, MSTResult result) {
+        return new DynamicMST(graph, result.getEdgeIds());
+    }
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public long getTotalCost() {
+        return totalCost;
+    }
+
+    public int getTreeEdgeCount() {
+        return treeEdgeCount;
+    }
+
+    public boolean isTreeEdge(int edge) {
+        return state[edge] == TREE;
+    }
+
+    public boolean isDeleted(int edge) {
+        return state[edge] == DELETED;
+    }
+
+    public int getWeight(int edge) {
+        return weights[edge];
+    }
+
+    public int[] getTreeEdgeIds() {
+        int[] ids = new int[treeEdgeCount];
+        int count = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            if (state[e] == TREE) {
+                ids[count++] = e;
+            }
+        }
+        return ids;
+    }
+
+    public List<Edge> getTreeEdges() {
+        List<Edge> edges = new ArrayList<>(treeEdgeCount);
+        for (int e : getTreeEdgeIds()) {
+            edges.add(new Edge(sources[e], destinations[e], weights[e]));
+        }
+        return edges;
+    }
+
+    public boolean connected(int u, int v) {
+        return findRoot(u) == findRoot(v);
+    }
+
+    // returns the id of the new edge
+    public int insertEdge(int source, int destination, int weight) {
+        if (source < 0 || source >= vertices || destination < 0 || destination >= vertices) {
+            throw new IllegalArgumentException("Edge " + source + " -> " + destination
+                    + " references a vertex outside [0, " + vertices + ")");
+        }
+        int edge = addEdgeRecord(source, destination, weight);
+        offer(edge);
+        return edge;
+    }
+
+    public void deleteEdge(int edge) {
+        requireAlive(edge);
+        boolean wasTree = state[edge] == TREE;
+        if (wasTree) {
+            cutTree(edge);
+        }
+        removeIncident(edge);
+        state[edge] = DELETED;
+        if (wasTree) {
+            reconnect(sources[edge], destinations[edge]);
+        }
+    }
+
+    public void updateWeight(int edge, int weight) {
+        requireAlive(edge);
+        int old = weights[edge];
+        if (weight == old) {
+            return;
+        }
+        if (state[edge] == TREE) {
+            if (weight < old) {
+                // a lighter tree edge stays in the tree; only its key changes
+                int node = vertices + edge;
+                access(node);
+                weights[edge] = weight;
+                update(node);
+                totalCost += weight - old;
+            } else {
+                cutTree(edge);
+                weights[edge] = weight;
+                reconnect(sources[edge], destinations[edge]);
+            }
+        } else {
+            weights[edge] = weight;
+            if (weight < old) {
+                offer(edge);
+            }
+        }
+    }
+
+    // cycle property: a non-tree edge enters the forest if it joins two trees or is lighter
+    // than the heaviest edge on the tree path between its endpoints
+    private void offer(int edge) {
+        int u = sources[edge];
+        int v = destinations[edge];
+        if (u == v) {
+            return;
+        }
+        if (!connected(u, v)) {
+            makeTree(edge);
+            return;
+        }
+        makeRoot(u);
+        access(v);
+        int heaviest = maxNode[v];
+        if (heaviest >= vertices && key(heaviest - vertices) > key(edge)) {
+            cutTree(heaviest - vertices);
+            makeTree(edge);
+        }
+    }
+
+    // after a tree edge between a and b was removed, links the cheapest edge across the cut;
+    // linear in the smaller side and its incident edges, see the class comment
+    private void reconnect(int a, int b) {
+        int sideA = ++stamp;
+        int sideB = ++stamp;
+        mark[a] = sideA;
+        mark[b] = sideB;
+        queueA[0] = a;
+        queueB[0] = b;
+        int headA = 0;
+        int tailA = 1;
+        int headB = 0;
+        int tailB = 1;
+        // breadth-first over tree edges from both ends, one vertex at a time, until one side is exhausted
+        while (headA < tailA && headB < tailB) {
+            tailA = expand(queueA[headA++], sideA, queueA, tailA);
+            tailB = expand(queueB[headB++], sideB, queueB, tailB);
+        }
+        boolean aIsSmaller = headA == tailA;
+        int[] smaller = aIsSmaller ? queueA : queueB;
+        int size = aIsSmaller ? tailA : tailB;
+        int side = aIsSmaller ? sideA : sideB;
+
+        int best = NONE;
+        for (int i = 0; i < size; i++) {
+            int x = smaller[i];
+            int[] list = incident[x];
+            for (int j = 0, n = incidentSize[x]; j < n; j++) {
+                int entry = list[j];
+                int e = entry >>> 1;
+                if (state[e] != NON_TREE) {
+                    continue;
+                }
+                int other = (entry & 1) == 0 ? destinations[e] : sources[e];
+                if (mark[other] != side && (best == NONE || key(e) < key(best))) {
+                    best = e;
+                }
+            }
+        }
+        if (best != NONE) {
+            makeTree(best);
+        }
+    }
+
+    private int expand(int x, int side, int[] queue, int tail) {
+        int[] list = incident[x];
+        for (int j = 0, n = incidentSize[x]; j < n; j++) {
+            int entry = list[j];
+            int e = entry >>> 1;
+            if (state[e] != TREE) {
+                continue;
+            }
+            int other = (entry & 1) == 0 ? destinations[e] : sources[e];
+            if (mark[other] != side) {
+                mark[other] = side;
+                queue[tail++] = other;
+            }
+        }
+        return tail;
+    }
+
+    private void makeTree(int edge) {
+        int node = vertices + edge;
+        left[node] = NONE;
+        right[node] = NONE;
+        parent[node] = NONE;
+        flipped[node] = false;
+        maxNode[node] = node;
+        link(sources[edge], node);
+        link(node, destinations[edge]);
+        state[edge] = TREE;
+        totalCost += weights[edge];
+        treeEdgeCount++;
+    }
+
+    private void cutTree(int edge) {
+        int node = vertices + edge;
+        cut(sources[edge], node);
+        cut(node, destinations[edge]);
+        state[edge] = NON_TREE;
+        totalCost -= weights[edge];
+        treeEdgeCount--;
+    }
+
+    private long key(int edge) {
+        return ((long) weights[edge] << 32) | edge;
+    }
+
+    private void requireAlive(int edge) {
+        if (edge < 0 || edge >= edgeCount || state[edge] == DELETED) {
+            throw new IllegalArgumentException("Edge " + edge + " does not exist");
+        }
+    }
+
+    // ---- edge storage ----
+
+    private int addEdgeRecord(int source, int destination, int weight) {
+        if (edgeCount == sources.length) {
+            int capacity = sources.length * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            state = Arrays.copyOf(state, capacity);
+            incidentSlot = Arrays.copyOf(incidentSlot, 2 * capacity);
+            allocateNodes(vertices + capacity);
+        }
+        int edge = edgeCount++;
+        sources[edge] = source;
+        destinations[edge] = destination;
+        weights[edge] = weight;
+        state[edge] = NON_TREE;
+        addIncident(source, 2 * edge);
+        addIncident(destination, 2 * edge + 1);
+        return edge;
+    }
+
+    private void addIncident(int vertex, int entry) {
+        int[] list = incident[vertex];
+        if (list == null) {
+            list = incident[vertex] = new int[4];
+        } else if (incidentSize[vertex] == list.length) {
+            list = incident[vertex] = Arrays.copyOf(list, list.length * 2);
+        }
+        incidentSlot[entry] = incidentSize[vertex];
+        list[incidentSize[vertex]++] = entry;
+    }
+
+    private void removeIncident(int edge) {
+        removeIncidentEntry(sources[edge], 2 * edge);
+        removeIncidentEntry(destinations[edge], 2 * edge + 1);
+    }
+
+    private void removeIncidentEntry(int vertex, int entry) {
+        int[] list = incident[vertex];
+        int slot = incidentSlot[entry];
+        int last = list[--incidentSize[vertex]];
+        list[slot] = last;
+        incidentSlot[last] = slot;
+    }
+
+    // ---- link-cut tree ----
+
+    private void allocateNodes(int nodes) {
+        int old = left == null ? 0 : left.length;
+        left = left == null ? new int[nodes] : Arrays.copyOf(left, nodes);
+        right = right == null ? new int[nodes] : Arrays.copyOf(right, nodes);
+        parent = parent == null ? new int[nodes] : Arrays.copyOf(parent, nodes);
+        flipped = flipped == null ? new boolean[nodes] : Arrays.copyOf(flipped, nodes);
+        maxNode = maxNode == null ? new int[nodes] : Arrays.copyOf(maxNode, nodes);
+        splayStack = new int[nodes];
+        for (int x = old; x < nodes; x++) {
+            left[x] = NONE;
+            right[x] = NONE;
+            parent[x] = NONE;
+            maxNode[x] = x;
+        }
+    }
+
+    // vertex nodes carry no edge and rank below every edge
+    private long nodeKey(int node) {
+        return node < vertices ? Long.MIN_VALUE : key(node - vertices);
+    }
+
+    private boolean isSplayRoot(int x) {
+        int p = parent[x];
+        return p == NONE || (left[p] != x && right[p] != x);
+    }
+
+    private void update(int x) {
+        int best = x;
+        int l = left[x];
+        int r = right[x];
+        if (l != NONE && nodeKey(maxNode[l]) > nodeKey(best)) {
+            best = maxNode[l];
+        }
+        if (r != NONE && nodeKey(maxNode[r]) > nodeKey(best)) {
+            best = maxNode[r];
+        }
+        maxNode[x] = best;
+    }
+
+    private void pushDown(int x) {
+        if (flipped[x]) {
+            int swap = left[x];
+            left[x] = right[x];
+            right[x] = swap;
+            if (left[x] != NONE) {
+                flipped[left[x]] ^= true;
+            }
+            if (right[x] != NONE) {
+                flipped[right[x]] ^= true;
+            }
+            flipped[x] = false;
+        }
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        boolean parentWasRoot = isSplayRoot(p);
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NONE) {
+                parent[right[x]] = p;
+            }
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NONE) {
+                parent[left[x]] = p;
+            }
+            left[x] = p;
+        }
+        parent[p] = x;
+        parent[x] = g;
+        if (!parentWasRoot) {
+            if (left[g] == p) {
+                left[g] = x;
+            } else {
+                right[g] = x;
+            }
+        }
+        update(p);
+        update(x);
+    }
+
+    private void splay(int x) {
+        int top = 0;
+        splayStack[top++] = x;
+        for (int y = x; !isSplayRoot(y); y = parent[y]) {
+            splayStack[top++] = parent[y];
+        }
+        while (top > 0) {
+            pushDown(splayStack[--top]);
+        }
+        while (!isSplayRoot(x)) {
+            int p = parent[x];
+            if (!isSplayRoot(p)) {
+                int g = parent[p];
+                rotate((left[g] == p) == (left[p] == x) ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    private void access(int x) {
+        int last = NONE;
+        for (int y = x; y != NONE; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            update(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        flipped[x] ^= true;
+    }
+
+    private int findRoot(int x) {
+        access(x);
+        while (true) {
+            pushDown(x);
+            if (left[x] == NONE) {
+                break;
+            }
+            x = left[x];
+        }
+        splay(x);
+        return x;
+    }
+
+    private void link(int x, int y) {
+        makeRoot(x);
+        parent[x] = y;
+    }
+
+    // x and y must be adjacent in the represented tree
+    private void cut(int x, int y) {
+        makeRoot(x);
+        access(y);
+        left[y] = NONE;
+        parent[x] = NONE;
+        update(y);
+    }
+}
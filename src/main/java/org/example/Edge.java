@@ -1,13 +1,30 @@
 package org.example;
 
+// An edge with its exact weight. getWeight() only works on INT edges; LONG and DOUBLE edges
+// are read with getLongWeight() and getDoubleWeight(), as on Graph, so a weight rank is never
+// handed out in place of a weight.
 public class Edge {
     private final int source;
     private final int destination;
-    private final int weight;
+    private final Graph.WeightType weightType;
+    private final long weight; // the value for INT and LONG, the raw bits for DOUBLE
 
     public Edge(int source, int destination, int weight) {
+        this(source, destination, Graph.WeightType.INT, weight);
+    }
+
+    public Edge(int source, int destination, long weight) {
+        this(source, destination, Graph.WeightType.LONG, weight);
+    }
+
+    public Edge(int source, int destination, double weight) {
+        this(source, destination, Graph.WeightType.DOUBLE, Double.doubleToLongBits(weight));
+    }
+
+    private Edge(int source, int destination, Graph.WeightType weightType, long weight) {
         this.source = source;
         this.destination = destination;
+        this.weightType = weightType;
         this.weight = weight;
     }
 
@@ -19,7 +36,25 @@ public class Edge {
         return destination;
     }
 
+    public Graph.WeightType getWeightType() {
+        return weightType;
+    }
+
     public int getWeight() {
+        if (weightType != Graph.WeightType.INT) {
+            throw new IllegalStateException("Edge has " + weightType + " weight, use getLongWeight or getDoubleWeight");
+        }
+        return (int) weight;
+    }
+
+    public long getLongWeight() {
+        if (weightType == Graph.WeightType.DOUBLE) {
+            throw new IllegalStateException("Edge has DOUBLE weight");
+        }
         return weight;
     }
+
+    public double getDoubleWeight() {
+        return weightType == Graph.WeightType.DOUBLE ? Double.longBitsToDouble(weight) : weight;
+    }
 }
@@ -0,0 +1,87 @@
+package org.example;
+
+// Primitive sorts of edge ids by weight. Nothing here allocates per edge: the LSD
+// radix sort works on int keys in byte-sized digits and ping-pongs between two
+// buffers, skipping any digit in which every key agrees. The buffers come from a
+// SolverWorkspace, so repeated sorts with one workspace allocate nothing.
+public final class EdgeSort {
+    private static final int RADIX_BITS = 8;
+    static final int BUCKETS = 1 << RADIX_BITS;
+    static final int PASSES = Integer.SIZE / RADIX_BITS;
+
+    private EdgeSort() {
+    }
+
+    // all edge ids of the graph ordered by ascending weight, ties in id order
+    public static int[] sortByWeight(Graph graph) {
+        int edgeCount = graph.getEdgeCount();
+        int[] ids = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            ids[e] = e;
+        }
+        sortByWeight(graph, ids, 0, edgeCount);
+        return ids;
+    }
+
+    // sorts ids[from, to) by the weight of the referenced edges (stable)
+    public static void sortByWeight(Graph graph, int[] ids, int from, int to) {
+        sortByWeight(graph, ids, from, to, new SolverWorkspace());
+    }
+
+    public static void sortByWeight(Graph graph, int[] ids, int from, int to, SolverWorkspace workspace) {
+        int length = to - from;
+        if (length < 2) {
+            return;
+        }
+        int[] keys = workspace.sortKeys(length);
+        for (int i = 0; i < length; i++) {
+            // flipping the sign bit maps signed order onto unsigned digit order
+            keys[i] = graph.getWeight(ids[from + i]) ^ Integer.MIN_VALUE;
+        }
+        radixSort(keys, ids, from, length, workspace);
+    }
+
+    private static void radixSort(int[] keys, int[] ids, int from, int length, SolverWorkspace workspace) {
+        int[][] counts = workspace.sortCounts();
+        for (int i = 0; i < length; i++) {
+            int key = keys[i];
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass][(key >>> (pass * RADIX_BITS)) & (BUCKETS - 1)]++;
+            }
+        }
+
+        int[] keyBuffer = keys;
+        int[] idBuffer = workspace.sortIds(length);
+        System.arraycopy(ids, from, idBuffer, 0, length);
+        int[] keyScratch = workspace.sortKeyScratch(length);
+        int[] idScratch = workspace.sortIdScratch(length);
+
+        for (int pass = 0; pass < PASSES; pass++) {
+            int[] count = counts[pass];
+            int shift = pass * RADIX_BITS;
+            if (count[(keyBuffer[0] >>> shift) & (BUCKETS - 1)] == length) {
+                continue; // every key has the same digit here
+            }
+            int offset = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                int c = count[b];
+                count[b] = offset;
+                offset += c;
+            }
+            for (int i = 0; i < length; i++) {
+                int key = keyBuffer[i];
+                int slot = count[(key >>> shift) & (BUCKETS - 1)]++;
+                keyScratch[slot] = key;
+                idScratch[slot] = idBuffer[i];
+            }
+            int[] swap = keyBuffer;
+            keyBuffer = keyScratch;
+            keyScratch = swap;
+            swap = idBuffer;
+            idBuffer = idScratch;
+            idScratch = swap;
+        }
+
+        System.arraycopy(idBuffer, 0, ids, from, length);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example;
+
+// Typed result for one input graph solved only by the engine AdaptiveSolver picked for it,
+// as the server answers by default; GraphResult is the three-way comparison.
+public class EngineResult {
+    private final int graphId;
+    private final Graph graph;
+    private final AdaptiveSolver.Selection selection;
+    private final AlgorithmReport report;
+    private final ResultCache.Status cacheStatus;
+
+    public EngineResult(int graphId, Graph graph, AdaptiveSolver.Selection selection, AlgorithmReport report,
+                        ResultCache.Status cacheStatus) {
+        this.graphId = graphId;
+        this.graph = graph;
+        this.selection = selection;
+        this.report = report;
+        this.cacheStatus = cacheStatus;
+    }
+
+    public int getGraphId() { return graphId; }
+    public Graph getGraph() { return graph; }
+    public AdaptiveSolver.Selection getSelection() { return selection; }
+    public AlgorithmReport getReport() { return report; }
+    public ResultCache.Status getCacheStatus() { return cacheStatus; }
+}
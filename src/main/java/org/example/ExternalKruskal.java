@@ -0,0 +1,162 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Out-of-core Kruskal for edge sets that do not fit in the heap. Edges are read runEdges at a
+// time, each chunk is sorted by weight and spilled to a temp file as a sorted run, and the runs
+// are k-way merged into a single weight-ordered stream that feeds an in-memory union-find over
+// the vertices. Heap use is O(V + runEdges + k * buffer) no matter how many edges there are.
+// Paired with BinaryGraphFormat.load the edge columns live in the page cache, not the heap.
+// Ties are broken by edge id, so the tree matches KruskalAlgorithm.findMSTSorted.
+public class ExternalKruskal {
+    public static final int DEFAULT_RUN_EDGES = 1 << 22;
+
+    private static final int RECORD_BYTES = 4 * Integer.BYTES; // weight, source, destination, edge id
+    private static final int STREAM_BUFFER_BYTES = 1 << 16;
+
+    public static MSTResult findMST(Path binaryGraphFile) throws IOException {
+        return findMST(BinaryGraphFormat.load(binaryGraphFile), DEFAULT_RUN_EDGES, null);
+    }
+
+    // tempDir null means the system temp directory; run files are deleted before returning
+    public static MSTResult findMST(Graph graph, int runEdges, Path tempDir) throws IOException {
+        return findMST(graph, runEdges, tempDir, new CountingMetrics());
+    }
+
+    public static MSTResult findMST(Graph graph, int runEdges, Path tempDir, MSTMetrics metrics) throws IOException {
+        if (runEdges < 1) {
+            throw new IllegalArgumentException("runEdges must be positive, got " + runEdges);
+        }
+        int vertices = graph.getVertices();
+        if (vertices == 0 || graph.getEdgeCount() == 0) {
+            return MSTResult.empty("kruskal", vertices, metrics);
+        }
+
+        List<Path> runs = new ArrayList<>();
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            long phase = metrics.phaseStart();
+            writeSortedRuns(graph, runEdges, tempDir, runs);
+            metrics.phaseEnd(MSTMetrics.Phase.SORT, phase);
+            PriorityQueue<RunReader> merge = new PriorityQueue<>(Math.max(1, runs.size()), ExternalKruskal::compare);
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.advance()) {
+                    merge.add(reader);
+                }
+            }
+
+            DisjointSet sets = new DisjointSet(vertices);
+            List<Edge> mstEdges = new ArrayList<>(vertices - 1);
+            int[] mstEdgeIds = new int[vertices - 1];
+
+            // the merge stops as soon as the tree is complete, leaving the heaviest edges unread
+            phase = metrics.phaseStart();
+            while (!merge.isEmpty() && mstEdges.size() < vertices - 1) {
+                RunReader head = merge.poll();
+                metrics.increment(MSTMetrics.Counter.FIND_CALLS);
+                int root1 = sets.find(head.source);
+                metrics.increment(MSTMetrics.Counter.FIND_CALLS);
+                int root2 = sets.find(head.destination);
+                metrics.increment(MSTMetrics.Counter.COMPARISONS);
+                if (root1 != root2) {
+                    mstEdgeIds[mstEdges.size()] = head.edgeId;
+                    mstEdges.add(graph.getEdge(head.edgeId));
+                    metrics.increment(MSTMetrics.Counter.UNION_CALLS);
+                    sets.link(root1, root2);
+                }
+                if (head.advance()) {
+                    merge.add(head);
+                }
+            }
+
+            metrics.phaseEnd(MSTMetrics.Phase.UNION_FIND, phase);
+
+            int[] componentIds = new int[vertices];
+            int componentCount = sets.labelComponents(componentIds);
+            return new MSTResult("kruskal", graph, mstEdges, Arrays.copyOf(mstEdgeIds, mstEdges.size()),
+                    componentIds, componentCount, metrics);
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static void writeSortedRuns(Graph graph, int runEdges, Path tempDir, List<Path> runs) throws IOException {
+        int edgeCount = graph.getEdgeCount();
+        long[] keys = new long[Math.min(runEdges, edgeCount)];
+        for (int start = 0; start < edgeCount; start += runEdges) {
+            int length = Math.min(runEdges, edgeCount - start);
+            // weight in the high half keeps signed order, the chunk offset in the low half keeps ties by id
+            for (int i = 0; i < length; i++) {
+                keys[i] = ((long) graph.getWeight(start + i) << 32) | i;
+            }
+            Arrays.sort(keys, 0, length);
+
+            Path run = tempDir == null
+                    ? Files.createTempFile("kruskal-run", ".bin")
+                    : Files.createTempFile(tempDir, "kruskal-run", ".bin");
+            runs.add(run);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER_BYTES))) {
+                for (int i = 0; i < length; i++) {
+                    int edge = start + (int) keys[i];
+                    out.writeInt((int) (keys[i] >> 32));
+                    out.writeInt(graph.getSource(edge));
+                    out.writeInt(graph.getDestination(edge));
+                    out.writeInt(edge);
+                }
+            }
+        }
+    }
+
+    private static int compare(RunReader a, RunReader b) {
+        return a.weight != b.weight ? Integer.compare(a.weight, b.weight) : Integer.compare(a.edgeId, b.edgeId);
+    }
+
+    // cursor over one sorted run; the fields hold the record most recently read
+    private static final class RunReader {
+        private final DataInputStream in;
+        private long remaining;
+        private int weight;
+        private int source;
+        private int destination;
+        private int edgeId;
+
+        private RunReader(Path run) throws IOException {
+            this.remaining = Files.size(run) / RECORD_BYTES;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), STREAM_BUFFER_BYTES));
+        }
+
+        private boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            weight = in.readInt();
+            source = in.readInt();
+            destination = in.readInt();
+            edgeId = in.readInt();
+            return true;
+        }
+
+        private void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -1,39 +1,508 @@
 package org.example;
 
-import java.util.ArrayList;
+import java.math.BigInteger;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
+// Edges are stored as parallel primitive arrays (source, destination, weight) indexed
+// by edge id, so a graph costs 12 bytes per edge instead of one Edge object per edge.
+// Graphs produced by Graph.builder() are immutable; the legacy constructors keep
+// supporting addEdge for small hand-built graphs. A graph loaded by BinaryGraphFormat
+// reads the same columns straight from memory-mapped IntBuffers instead of arrays.
+//
+// Weights are int by default. A graph built with long or double weights keeps the exact
+// values in a long column (double values as raw bits) and stores each edge's dense weight
+// rank in the int column. An MST depends only on the order of the weights, so every
+// algorithm runs unchanged on getWeight(), and only costs and output read the exact values.
 public class Graph {
+    private static final int INITIAL_CAPACITY = 16;
+
+    public enum WeightType { INT, LONG, DOUBLE }
+
     private final int vertices;
-    private final List<Edge> edges;
     private final List<String> nodeNames; // optional list of node names, may be null
+    private final boolean immutable;
+
+    private int[] sources;
+    private int[] destinations;
+    private int[] weights;
+    private int edgeCount;
+
+    // exact weights of LONG and DOUBLE graphs, null for INT graphs
+    private final WeightType weightType;
+    private final long[] exactWeights;
+    private final LongBuffer exactWeightBuffer;
+
+    // set instead of the arrays for buffer-backed graphs
+    private final IntBuffer sourceBuffer;
+    private final IntBuffer destinationBuffer;
+    private final IntBuffer weightBuffer;
+
+    private Adjacency adjacency; // CSR index, built on first use and dropped by addEdge
 
     public Graph(int vertices) {
-        this.vertices = vertices;
-        this.edges = new ArrayList<>();
-        this.nodeNames = null;
+        this(vertices, null);
     }
 
     // new constructor that accepts node names (preserves order -> index mapping)
     public Graph(int vertices, List<String> nodeNames) {
         this.vertices = vertices;
-        this.edges = new ArrayList<>();
         this.nodeNames = nodeNames;
+        this.immutable = false;
+        this.sources = new int[INITIAL_CAPACITY];
+        this.destinations = new int[INITIAL_CAPACITY];
+        this.weights = new int[INITIAL_CAPACITY];
+        this.sourceBuffer = null;
+        this.destinationBuffer = null;
+        this.weightBuffer = null;
+        this.weightType = WeightType.INT;
+        this.exactWeights = null;
+        this.exactWeightBuffer = null;
+    }
+
+    private Graph(Builder builder) {
+        this.vertices = builder.vertices;
+        this.nodeNames = builder.nodeNames;
+        this.immutable = true;
+        this.edgeCount = builder.edgeCount;
+        this.sources = trim(builder.sources, edgeCount);
+        this.destinations = trim(builder.destinations, edgeCount);
+        this.weights = trim(builder.weights, edgeCount);
+        this.sourceBuffer = null;
+        this.destinationBuffer = null;
+        this.weightBuffer = null;
+        this.weightType = builder.weightType;
+        this.exactWeights = builder.exactWeights == null ? null : Arrays.copyOf(builder.exactWeights, edgeCount);
+        this.exactWeightBuffer = null;
+        if (weightType != WeightType.INT) {
+            rankWeights(exactWeights, weights, weightType);
+        }
+    }
+
+    private Graph(int vertices, List<String> nodeNames, IntBuffer sources, IntBuffer destinations, IntBuffer weights,
+                  WeightType weightType, LongBuffer exactWeights, Adjacency adjacency) {
+        this.vertices = vertices;
+        this.nodeNames = nodeNames;
+        this.immutable = true;
+        this.edgeCount = sources.limit();
+        this.sourceBuffer = sources;
+        this.destinationBuffer = destinations;
+        this.weightBuffer = weights;
+        this.weightType = weightType;
+        this.exactWeights = null;
+        this.exactWeightBuffer = exactWeights;
+        this.adjacency = adjacency;
+    }
+
+    public static Builder builder(int vertices) {
+        return new Builder(vertices);
+    }
+
+    // immutable graph over existing int columns (e.g. memory-mapped); adjacency may be null
+    // and is then built on the heap on first use
+    static Graph wrap(int vertices, List<String> nodeNames, IntBuffer sources, IntBuffer destinations,
+                      IntBuffer weights, Adjacency adjacency) {
+        return wrap(vertices, nodeNames, sources, destinations, weights, WeightType.INT, null, adjacency);
+    }
+
+    // LONG and DOUBLE graphs pass their exact weights; weights then holds the ranks (see rankWeights)
+    static Graph wrap(int vertices, List<String> nodeNames, IntBuffer sources, IntBuffer destinations,
+                      IntBuffer weights, WeightType weightType, LongBuffer exactWeights, Adjacency adjacency) {
+        if (destinations.limit() != sources.limit() || weights.limit() != sources.limit()
+                || (exactWeights != null && exactWeights.limit() != sources.limit())) {
+            throw new IllegalArgumentException("Edge columns differ in length");
+        }
+        if ((weightType == WeightType.INT) != (exactWeights == null)) {
+            throw new IllegalArgumentException(weightType + " graph " + (exactWeights == null ? "needs" : "takes no")
+                    + " exact weights");
+        }
+        return new Graph(vertices, nodeNames, sources, destinations, weights, weightType, exactWeights, adjacency);
     }
 
     public int getVertices() {
         return vertices;
     }
 
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getSource(int edge) {
+        return sourceBuffer == null ? sources[edge] : sourceBuffer.get(edge);
+    }
+
+    public int getDestination(int edge) {
+        return destinationBuffer == null ? destinations[edge] : destinationBuffer.get(edge);
+    }
+
+    // the weight algorithms compare: the weight itself on INT graphs, its rank on LONG and
+    // DOUBLE graphs
+    public int getWeight(int edge) {
+        return weightBuffer == null ? weights[edge] : weightBuffer.get(edge);
+    }
+
+    public WeightType getWeightType() {
+        return weightType;
+    }
+
+    public long getLongWeight(int edge) {
+        return switch (weightType) {
+            case INT -> getWeight(edge);
+            case LONG -> exactWeight(edge);
+            case DOUBLE -> throw new IllegalStateException("Graph has double weights");
+        };
+    }
+
+    public double getDoubleWeight(int edge) {
+        return switch (weightType) {
+            case INT -> getWeight(edge);
+            case LONG -> exactWeight(edge);
+            case DOUBLE -> Double.longBitsToDouble(exactWeight(edge));
+        };
+    }
+
+    // 64-bit key with the same order as the exact weights, for hashing and comparing across graphs
+    public long getWeightKey(int edge) {
+        return switch (weightType) {
+            case INT -> getWeight(edge);
+            case LONG -> exactWeight(edge);
+            case DOUBLE -> sortableKey(exactWeight(edge));
+        };
+    }
+
+    // sum of the exact weights of the given edges; DOUBLE graphs use sumDoubleWeights. Int
+    // weights cannot overflow it, long weights throw ArithmeticException when they do.
+    public long sumWeights(int[] edgeIds) {
+        long sum = 0;
+        if (weightType == WeightType.INT) {
+            for (int edge : edgeIds) {
+                sum += getWeight(edge);
+            }
+        } else {
+            for (int edge : edgeIds) {
+                sum = Math.addExact(sum, getLongWeight(edge));
+            }
+        }
+        return sum;
+    }
+
+    // the same sum without an upper bound, for LONG totals that overflow a long
+    public BigInteger sumExactWeights(int[] edgeIds) {
+        BigInteger sum = BigInteger.ZERO;
+        long partial = 0;
+        for (int edge : edgeIds) {
+            long weight = getLongWeight(edge);
+            long next = partial + weight;
+            // a sign change that neither operand had is an overflow; flush and start over
+            if (((partial ^ next) & (weight ^ next)) < 0) {
+                sum = sum.add(BigInteger.valueOf(partial));
+                next = weight;
+            }
+            partial = next;
+        }
+        return sum.add(BigInteger.valueOf(partial));
+    }
+
+    public double sumDoubleWeights(int[] edgeIds) {
+        double sum = 0;
+        for (int edge : edgeIds) {
+            sum += getDoubleWeight(edge);
+        }
+        return sum;
+    }
+
+    private long exactWeight(int edge) {
+        return exactWeightBuffer == null ? exactWeights[edge] : exactWeightBuffer.get(edge);
+    }
+
+    // raw double bits to a long with the same order: flip every bit but the sign of negatives
+    static long sortableKey(long doubleBits) {
+        return doubleBits ^ ((doubleBits >> 63) & Long.MAX_VALUE);
+    }
+
+    // dense ranks: equal weights share a rank and a lighter weight always has a lower one
+    static void rankWeights(long[] exactWeights, int[] ranks, WeightType weightType) {
+        int edgeCount = ranks.length;
+        long[] keys = new long[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            keys[e] = weightType == WeightType.DOUBLE ? sortableKey(exactWeights[e]) : exactWeights[e];
+        }
+        long[] distinct = keys.clone();
+        Arrays.sort(distinct);
+        int count = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            if (count == 0 || distinct[i] != distinct[count - 1]) {
+                distinct[count++] = distinct[i];
+            }
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            ranks[e] = Arrays.binarySearch(distinct, 0, count, keys[e]);
+        }
+    }
+
+    // materialises a single edge with its exact weight; algorithms should use the indexed
+    // accessors instead
+    public Edge getEdge(int edge) {
+        return switch (weightType) {
+            case INT -> new Edge(getSource(edge), getDestination(edge), getWeight(edge));
+            case LONG -> new Edge(getSource(edge), getDestination(edge), exactWeight(edge));
+            case DOUBLE -> new Edge(getSource(edge), getDestination(edge), Double.longBitsToDouble(exactWeight(edge)));
+        };
+    }
+
+    // read-only view kept for callers of the old List<Edge> API; every get() allocates
     public List<Edge> getEdges() {
-        return edges;
+        return new AbstractList<>() {
+            @Override
+            public Edge get(int index) {
+                if (index < 0 || index >= edgeCount) {
+                    throw new IndexOutOfBoundsException("Edge index " + index + " out of range [0, " + edgeCount + ")");
+                }
+                return getEdge(index);
+            }
+
+            @Override
+            public int size() {
+                return edgeCount;
+            }
+        };
     }
 
     public void addEdge(int source, int destination, int weight) {
-        edges.add(new Edge(source, destination, weight));
+        if (immutable) {
+            throw new UnsupportedOperationException("Graph was created by a builder and is immutable");
+        }
+        if (edgeCount == sources.length) {
+            int capacity = sources.length * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        sources[edgeCount] = source;
+        destinations[edgeCount] = destination;
+        weights[edgeCount] = weight;
+        edgeCount++;
+        adjacency = null;
     }
 
     public List<String> getNodeNames() {
         return nodeNames;
     }
+
+    public synchronized Adjacency getAdjacency() {
+        if (adjacency == null) {
+            adjacency = new Adjacency(this);
+        }
+        return adjacency;
+    }
+
+    // true when the CSR index already exists and getAdjacency() will not build it
+    public synchronized boolean hasAdjacency() {
+        return adjacency != null;
+    }
+
+    private static int[] trim(int[] array, int length) {
+        return array.length == length ? array : Arrays.copyOf(array, length);
+    }
+
+    // Compressed sparse row index: the neighbours of v occupy slots [getStart(v), getEnd(v)).
+    // Every undirected edge appears once in the slot range of each endpoint.
+    public static final class Adjacency {
+        private final int[] offsets;
+        private final int[] adjacentVertices;
+        private final int[] adjacentEdges;
+
+        // set instead of the arrays for buffer-backed indexes
+        private final IntBuffer offsetBuffer;
+        private final IntBuffer adjacentVertexBuffer;
+        private final IntBuffer adjacentEdgeBuffer;
+
+        private Adjacency(IntBuffer offsets, IntBuffer adjacentVertices, IntBuffer adjacentEdges) {
+            this.offsets = null;
+            this.adjacentVertices = null;
+            this.adjacentEdges = null;
+            this.offsetBuffer = offsets;
+            this.adjacentVertexBuffer = adjacentVertices;
+            this.adjacentEdgeBuffer = adjacentEdges;
+        }
+
+        static Adjacency wrap(IntBuffer offsets, IntBuffer adjacentVertices, IntBuffer adjacentEdges) {
+            return new Adjacency(offsets, adjacentVertices, adjacentEdges);
+        }
+
+        private Adjacency(Graph graph) {
+            offsetBuffer = null;
+            adjacentVertexBuffer = null;
+            adjacentEdgeBuffer = null;
+            int vertices = graph.vertices;
+            int edgeCount = graph.edgeCount;
+            offsets = new int[vertices + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                offsets[graph.getSource(e) + 1]++;
+                offsets[graph.getDestination(e) + 1]++;
+            }
+            for (int v = 0; v < vertices; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            adjacentVertices = new int[offsets[vertices]];
+            adjacentEdges = new int[offsets[vertices]];
+            int[] cursor = Arrays.copyOf(offsets, vertices);
+            for (int e = 0; e < edgeCount; e++) {
+                int source = graph.getSource(e);
+                int destination = graph.getDestination(e);
+                int slot = cursor[source]++;
+                adjacentVertices[slot] = destination;
+                adjacentEdges[slot] = e;
+                slot = cursor[destination]++;
+                adjacentVertices[slot] = source;
+                adjacentEdges[slot] = e;
+            }
+        }
+
+        public int getStart(int vertex) {
+            return offsetBuffer == null ? offsets[vertex] : offsetBuffer.get(vertex);
+        }
+
+        public int getEnd(int vertex) {
+            return offsetBuffer == null ? offsets[vertex + 1] : offsetBuffer.get(vertex + 1);
+        }
+
+        public int getDegree(int vertex) {
+            return getEnd(vertex) - getStart(vertex);
+        }
+
+        public int getAdjacentVertex(int slot) {
+            return adjacentVertexBuffer == null ? adjacentVertices[slot] : adjacentVertexBuffer.get(slot);
+        }
+
+        public int getAdjacentEdge(int slot) {
+            return adjacentEdgeBuffer == null ? adjacentEdges[slot] : adjacentEdgeBuffer.get(slot);
+        }
+    }
+
+    // Appends into growable primitive arrays, so adding an edge never allocates an object.
+    public static final class Builder {
+        private int vertices;
+        private List<String> nodeNames;
+        private int[] sources = new int[INITIAL_CAPACITY];
+        private int[] destinations = new int[INITIAL_CAPACITY];
+        private int[] weights = new int[INITIAL_CAPACITY];
+        private int edgeCount;
+        // widened on the first long or double edge; earlier int weights are copied over
+        private WeightType weightType = WeightType.INT;
+        private long[] exactWeights;
+
+        private Builder(int vertices) {
+            this.vertices = vertices;
+        }
+
+        public Builder vertices(int vertices) {
+            this.vertices = vertices;
+            return this;
+        }
+
+        public Builder nodeNames(List<String> nodeNames) {
+            this.nodeNames = nodeNames;
+            return this;
+        }
+
+        // pre-sizes the edge arrays when the edge count is known up front
+        public Builder expectedEdges(int count) {
+            if (count > sources.length) {
+                resize(count);
+            }
+            return this;
+        }
+
+        public Builder addEdge(int source, int destination, int weight) {
+            if (edgeCount == sources.length) {
+                resize(sources.length * 2);
+            }
+            if (weightType != WeightType.INT) {
+                return weightType == WeightType.LONG ? addEdge(source, destination, (long) weight)
+                        : addEdge(source, destination, (double) weight);
+            }
+            sources[edgeCount] = source;
+            destinations[edgeCount] = destination;
+            weights[edgeCount] = weight;
+            edgeCount++;
+            return this;
+        }
+
+        public Builder addEdge(int source, int destination, long weight) {
+            if (weightType == WeightType.DOUBLE) {
+                return addEdge(source, destination, (double) weight);
+            }
+            widen(WeightType.LONG);
+            return addExact(source, destination, weight);
+        }
+
+        public Builder addEdge(int source, int destination, double weight) {
+            if (Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Edge " + source + " -> " + destination + " has a NaN weight");
+            }
+            widen(WeightType.DOUBLE);
+            // + 0.0 turns -0.0 into 0.0, so both compare and hash alike
+            return addExact(source, destination, Double.doubleToLongBits(weight + 0.0));
+        }
+
+        private Builder addExact(int source, int destination, long exactWeight) {
+            if (edgeCount == sources.length) {
+                resize(sources.length * 2);
+            }
+            sources[edgeCount] = source;
+            destinations[edgeCount] = destination;
+            exactWeights[edgeCount] = exactWeight;
+            edgeCount++;
+            return this;
+        }
+
+        private void widen(WeightType type) {
+            if (weightType == type) {
+                return;
+            }
+            if (exactWeights == null) {
+                exactWeights = new long[sources.length];
+                for (int e = 0; e < edgeCount; e++) {
+                    exactWeights[e] = type == WeightType.LONG ? weights[e] : Double.doubleToLongBits(weights[e]);
+                }
+            } else {
+                // LONG to DOUBLE
+                for (int e = 0; e < edgeCount; e++) {
+                    exactWeights[e] = Double.doubleToLongBits(exactWeights[e] + 0.0);
+                }
+            }
+            weightType = type;
+        }
+
+        public WeightType getWeightType() {
+            return weightType;
+        }
+
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        public Graph build() {
+            for (int e = 0; e < edgeCount; e++) {
+                if (sources[e] < 0 || sources[e] >= vertices || destinations[e] < 0 || destinations[e] >= vertices) {
+                    throw new IllegalStateException("Edge " + e + " (" + sources[e] + " -> " + destinations[e]
+                            + ") references a vertex outside [0, " + vertices + ")");
+                }
+            }
+            return new Graph(this);
+        }
+
+        private void resize(int capacity) {
+            sources = Arrays.copyOf(sources, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            if (exactWeights != null) {
+                exactWeights = Arrays.copyOf(exactWeights, capacity);
+            }
+        }
+    }
 }
@@ -0,0 +1,139 @@
+package org.example;
+
+import java.util.SplittableRandom;
+
+// Seeded synthetic graphs written straight into a Graph.Builder, so large inputs never pass
+// through JSON. The same seed and parameters always give the same edge arrays. Edge counts
+// are bounded by int edge ids; 10^8 edges need about 1.2 GB of heap for the builder columns.
+public class GraphGenerator {
+
+    public enum Topology {
+        ERDOS_RENYI, // random spanning tree plus uniformly random extra edges, so it is connected
+        GRID,        // road-like square lattice; the last row may be partial
+        COMPLETE,    // every pair once
+        POWER_LAW,   // Barabási–Albert preferential attachment
+        DISCONNECTED // DISCONNECTED_COMPONENTS Erdős–Rényi blocks with interleaved vertex ids
+    }
+
+    public enum Weights { UNIFORM_SMALL, UNIFORM_WIDE, SKEWED }
+
+    public static final int DISCONNECTED_COMPONENTS = 16;
+
+    private GraphGenerator() {
+    }
+
+    // degree is the average vertex degree for ERDOS_RENYI and DISCONNECTED and twice the
+    // attachments per new vertex for POWER_LAW; GRID and COMPLETE ignore it
+    public static Graph generate(Topology topology, int vertices, int degree, Weights weights, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return switch (topology) {
+            case ERDOS_RENYI -> erdosRenyi(vertices, degree, weights, random);
+            case GRID -> grid(vertices, weights, random);
+            case COMPLETE -> complete(vertices, weights, random);
+            case POWER_LAW -> powerLaw(vertices, degree, weights, random);
+            case DISCONNECTED -> disconnected(vertices, degree, weights, random);
+        };
+    }
+
+    // the vertex count that gives roughly the requested number of edges for a topology
+    public static int verticesFor(Topology topology, long edges, int degree) {
+        long vertices = switch (topology) {
+            case ERDOS_RENYI, DISCONNECTED -> 2 * edges / Math.max(1, degree);
+            case GRID -> edges / 2;
+            case COMPLETE -> (long) Math.ceil((1 + Math.sqrt(1 + 8.0 * edges)) / 2);
+            case POWER_LAW -> edges / Math.max(1, degree / 2);
+        };
+        return (int) Math.max(2, Math.min(Integer.MAX_VALUE, vertices));
+    }
+
+    private static int weight(Weights weights, SplittableRandom random) {
+        return switch (weights) {
+            case UNIFORM_SMALL -> 1 + random.nextInt(1000);
+            case UNIFORM_WIDE -> random.nextInt(Integer.MAX_VALUE);
+            // many light edges, a long tail of heavy ones
+            case SKEWED -> (int) Math.min(Integer.MAX_VALUE, Math.round(-Math.log(1 - random.nextDouble()) * 100));
+        };
+    }
+
+    private static Graph.Builder builder(int vertices, long edges) {
+        if (edges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(edges + " edges do not fit in int edge ids");
+        }
+        return Graph.builder(vertices).expectedEdges((int) edges);
+    }
+
+    private static Graph erdosRenyi(int vertices, int degree, Weights weights, SplittableRandom random) {
+        long edges = Math.max(vertices - 1L, (long) vertices * degree / 2);
+        Graph.Builder builder = builder(vertices, edges);
+        for (int v = 1; v < vertices; v++) {
+            builder.addEdge(random.nextInt(v), v, weight(weights, random));
+        }
+        for (long e = vertices - 1L; e < edges; e++) {
+            builder.addEdge(random.nextInt(vertices), random.nextInt(vertices), weight(weights, random));
+        }
+        return builder.build();
+    }
+
+    private static Graph grid(int vertices, Weights weights, SplittableRandom random) {
+        int width = (int) Math.ceil(Math.sqrt(vertices));
+        Graph.Builder builder = builder(vertices, 2L * vertices);
+        for (int v = 0; v < vertices; v++) {
+            if ((v + 1) % width != 0 && v + 1 < vertices) {
+                builder.addEdge(v, v + 1, weight(weights, random));
+            }
+            if (v + width < vertices) {
+                builder.addEdge(v, v + width, weight(weights, random));
+            }
+        }
+        return builder.build();
+    }
+
+    private static Graph complete(int vertices, Weights weights, SplittableRandom random) {
+        Graph.Builder builder = builder(vertices, (long) vertices * (vertices - 1) / 2);
+        for (int u = 0; u < vertices; u++) {
+            for (int v = u + 1; v < vertices; v++) {
+                builder.addEdge(u, v, weight(weights, random));
+            }
+        }
+        return builder.build();
+    }
+
+    // picking a random endpoint of an existing edge selects a vertex with probability
+    // proportional to its degree
+    private static Graph powerLaw(int vertices, int degree, Weights weights, SplittableRandom random) {
+        int attachments = Math.max(1, degree / 2);
+        long edges = (long) vertices * attachments;
+        Graph.Builder builder = builder(vertices, edges);
+        int[] endpoints = new int[(int) Math.min(Integer.MAX_VALUE - 8, 2 * edges)];
+        int endpointCount = 0;
+        for (int v = 1; v < vertices; v++) {
+            for (int a = 0; a < Math.min(attachments, v); a++) {
+                int target = endpointCount == 0 ? 0 : endpoints[random.nextInt(endpointCount)];
+                builder.addEdge(v, target, weight(weights, random));
+                endpoints[endpointCount++] = v;
+                endpoints[endpointCount++] = target;
+            }
+        }
+        return builder.build();
+    }
+
+    // vertex v belongs to component v % DISCONNECTED_COMPONENTS; each component gets a random
+    // spanning tree and its share of random extra edges, so the forest has exactly
+    // min(V, DISCONNECTED_COMPONENTS) trees
+    private static Graph disconnected(int vertices, int degree, Weights weights, SplittableRandom random) {
+        int components = Math.min(vertices, DISCONNECTED_COMPONENTS);
+        long edges = Math.max(vertices - (long) components, (long) vertices * degree / 2);
+        Graph.Builder builder = builder(vertices, edges);
+        for (int v = components; v < vertices; v++) {
+            // a random earlier vertex of the same component
+            builder.addEdge(random.nextInt(v / components) * components + v % components, v, weight(weights, random));
+        }
+        for (long e = vertices - (long) components; e < edges; e++) {
+            int source = random.nextInt(vertices);
+            int component = source % components;
+            int size = (vertices - component + components - 1) / components;
+            builder.addEdge(source, random.nextInt(size) * components + component, weight(weights, random));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+import java.util.Arrays;
+
+// 4-ary min-heap over vertex ids 0..capacity-1 keyed by int priorities.
+// Every vertex has at most one entry, so decreaseKey replaces the lazy-deletion
+// pattern of a PriorityQueue<Edge> and the heap never holds more than V items.
+public class IndexedMinHeap implements VertexQueue {
+    private static final int ARITY = 4;
+
+    private final int[] heap;     // heap slot -> vertex
+    private final int[] position; // vertex -> heap slot, -1 when absent
+    private final int[] keys;     // vertex -> current key
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int vertex) {
+        return position[vertex] >= 0;
+    }
+
+    @Override
+    public int keyOf(int vertex) {
+        return keys[vertex];
+    }
+
+    @Override
+    public void insert(int vertex, int key) {
+        keys[vertex] = key;
+        heap[size] = vertex;
+        position[vertex] = size;
+        siftUp(size++);
+    }
+
+    @Override
+    public void decreaseKey(int vertex, int key) {
+        keys[vertex] = key;
+        siftUp(position[vertex]);
+    }
+
+    @Override
+    public int extractMin() {
+        int min = heap[0];
+        position[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            position[heap[slot]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int vertex = heap[slot];
+        int key = keys[vertex];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) / ARITY;
+            int parent = heap[parentSlot];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = vertex;
+        position[vertex] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int vertex = heap[slot];
+        int key = keys[vertex];
+        while (true) {
+            int firstChild = slot * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int bestSlot = firstChild;
+            int bestKey = keys[heap[firstChild]];
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                int childKey = keys[heap[c]];
+                if (childKey < bestKey) {
+                    bestKey = childKey;
+                    bestSlot = c;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int child = heap[bestSlot];
+            heap[slot] = child;
+            position[child] = slot;
+            slot = bestSlot;
+        }
+        heap[slot] = vertex;
+        position[vertex] = slot;
+    }
+}
@@ -1,60 +1,76 @@
 package org.example;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+// Graphs are read with Gson's streaming JsonReader: edges go straight into a
+// Graph.Builder, so no JsonElement tree or per-edge POJO is ever materialised.
+// Two graph layouts are accepted:
+// 1) { "nodes": ["A","B"], "edges": [{"from":"A","to":"B","weight":1}] }
+// 2) { "vertices": 3, "edges": [{"source":0,"destination":1,"weight":1}] }
+// Weights are int when they fit, long when they do not, and a graph with any fractional weight
+// gets double weights throughout.
+// Node names are interned per graph by default, so name memory is bounded by the largest graph.
+// openGraphs(path, symbols) interns into one SymbolTable across graphs (and files) instead, so
+// graphs reusing a node vocabulary store each name once, at the cost of memory that grows with
+// the whole input's vocabulary.
 public class JSONHandler {
 
     public static Graph readGraphFromJSON(String filePath) {
-        try (FileReader reader = new FileReader(filePath)) {
-            Gson gson = new Gson();
-            JsonElement root = JsonParser.parseReader(reader);
-
-            // If the file contains an object with "graphs": [ ... ] take the first graph
-            if (root.isJsonObject() && root.getAsJsonObject().has("graphs")) {
-                JsonElement graphsElem = root.getAsJsonObject().get("graphs");
-                if (graphsElem.isJsonArray() && graphsElem.getAsJsonArray().size() > 0) {
-                    JsonElement firstGraphElem = graphsElem.getAsJsonArray().get(0);
-                    GraphData graphData = gson.fromJson(firstGraphElem, GraphData.class);
-                    return convertGraphDataToGraph(graphData);
-                }
-            }
-
-            // Try to parse as a single GraphData object (either with nodes/from/to or vertices/source/destination)
-            GraphData maybeGraph = gson.fromJson(root, GraphData.class);
-            if (maybeGraph != null) {
-                // If it's in the form with nodes/from/to
-                if (maybeGraph.getNodes() != null && !maybeGraph.getNodes().isEmpty()) {
-                    return convertGraphDataToGraph(maybeGraph);
-                }
-                // If it's in the form with numeric vertices and edges with source/destination
-                if (maybeGraph.getVertices() > 0 && maybeGraph.getEdgesByIndex() != null) {
-                    Graph graph = new Graph(maybeGraph.getVertices());
-                    for (GraphData.EdgeData edge : maybeGraph.getEdgesByIndex()) {
-                        graph.addEdge(edge.getSource(), edge.getDestination(), edge.getWeight());
-                    }
-                    return graph;
-                }
-            }
-
-            return null;
-        } catch (IOException e) {
+        // If the file contains an object with "graphs": [ ... ] take the first graph
+        try (GraphIterator graphs = openGraphs(filePath)) {
+            return graphs.hasNext() ? graphs.next() : null;
+        } catch (IOException | UncheckedIOException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    // Yields the graphs of a file one at a time, so memory is bounded by the largest graph
+    // rather than the whole file. A file holding a single graph object yields that graph.
+    public static GraphIterator openGraphs(String filePath) throws IOException {
+        return openGraphs(new BufferedReader(new FileReader(filePath)));
+    }
+
+    public static GraphIterator openGraphs(String filePath, SymbolTable symbols) throws IOException {
+        return openGraphs(new BufferedReader(new FileReader(filePath)), symbols);
+    }
+
+    // same, over any character stream such as a request body; closing the iterator closes it
+    public static GraphIterator openGraphs(Reader reader) throws IOException {
+        return new GraphIterator(new JsonReader(reader), null);
+    }
+
+    public static GraphIterator openGraphs(Reader reader, SymbolTable symbols) throws IOException {
+        return new GraphIterator(new JsonReader(reader), symbols);
+    }
+
+    // stream flavour of openGraphs; close the stream to release the file
+    public static Stream<Graph> streamGraphs(String filePath) throws IOException {
+        GraphIterator graphs = openGraphs(filePath);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(graphs, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(graphs::closeUnchecked);
+    }
+
     public static void writeResultsToJSON(String filePath, Object result) {
         try (FileWriter writer = new FileWriter(filePath)) {
             Gson gson = new Gson();
@@ -64,110 +80,321 @@ public class JSONHandler {
         }
     }
 
-    public static Map<String, Integer> mapNodeNamesToIndices(List<String> nodes) {
-        Map<String, Integer> nodeIndexMap = new HashMap<>();
-        for (int i = 0; i < nodes.size(); i++) {
-            nodeIndexMap.put(nodes.get(i), i);
+    public static List<Graph> readGraphsFromJSON(String filePath) {
+        try (GraphIterator graphs = openGraphs(filePath)) {
+            List<Graph> result = new ArrayList<>();
+            graphs.forEachRemaining(result::add);
+            return result;
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // reads one graph object at the reader's current position
+    private static Graph readGraph(JsonReader reader, NodeVocabulary vocabulary) throws IOException {
+        GraphAccumulator graph = new GraphAccumulator(vocabulary);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!graph.readField(reader.nextName(), reader)) {
+                reader.skipValue();
+            }
         }
-        return nodeIndexMap;
+        reader.endObject();
+        return graph.build();
     }
 
-    private static Graph convertGraphDataToGraph(GraphData graphData) {
-        Map<String, Integer> nodeIndexMap = mapNodeNamesToIndices(graphData.getNodes());
-        Graph graph = new Graph(nodeIndexMap.size(), graphData.getNodes());
+    public static final class GraphIterator implements Iterator<Graph>, Closeable {
+        private final JsonReader reader;
+        private final NodeVocabulary vocabulary;
+        private boolean inGraphsArray;
+        private Graph single; // set when the file is one bare graph object
+
+        // symbols is null to intern per graph
+        private GraphIterator(JsonReader reader, SymbolTable symbols) throws IOException {
+            this.reader = reader;
+            this.vocabulary = new NodeVocabulary(symbols);
+            try {
+                GraphAccumulator accumulator = new GraphAccumulator(vocabulary);
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals("graphs") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        reader.beginArray();
+                        inGraphsArray = true;
+                        return;
+                    }
+                    if (!accumulator.readField(name, reader)) {
+                        reader.skipValue();
+                    }
+                }
+                // a top-level object without graph fields holds no graphs at all
+                single = accumulator.hasGraphFields() ? accumulator.build() : null;
+            } catch (IOException | RuntimeException e) {
+                reader.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (single != null) {
+                return true;
+            }
+            try {
+                return inGraphsArray && reader.hasNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
 
-        if (graphData.getEdges() != null) {
-            for (GraphData.EdgeData edge : graphData.getEdges()) {
-                int source = nodeIndexMap.get(edge.getFrom());
-                int destination = nodeIndexMap.get(edge.getTo());
-                graph.addEdge(source, destination, edge.getWeight());
+        @Override
+        public Graph next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (single != null) {
+                Graph graph = single;
+                single = null;
+                return graph;
             }
+            try {
+                return readGraph(reader, vocabulary);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
         }
 
-        return graph;
+        private void closeUnchecked() {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
-    public static List<Graph> readGraphsFromJSON(String filePath) {
-        try (FileReader reader = new FileReader(filePath)) {
-            Gson gson = new Gson();
-            Type graphsType = new TypeToken<GraphsData>() {}.getType();
-            GraphsData graphsData = gson.fromJson(reader, graphsType);
+    // Name resolution state shared by the graphs of one GraphIterator. vertexOf maps a symbol to
+    // its vertex in the current graph and is valid only where stamp equals the graph's generation,
+    // so switching graphs never clears it. A "nodes" list equal to the previous graph's is
+    // detected with plain equals at each position and reuses the previous mapping unhashed.
+    // Without a shared table each new "nodes" list starts a table of its own.
+    private static final class NodeVocabulary {
+        private final boolean shared;
+        private SymbolTable symbols;
+        private int[] vertexOf = new int[0];
+        private int[] stamp = new int[0];
+        private int generation;
+        private List<String> current;
 
-            List<Graph> graphs = new ArrayList<>();
-            if (graphsData != null && graphsData.getGraphs() != null) {
-                for (GraphData graphData : graphsData.getGraphs()) {
-                    graphs.add(convertGraphDataToGraph(graphData));
+        private NodeVocabulary(SymbolTable symbols) {
+            this.shared = symbols != null;
+            this.symbols = shared ? symbols : new SymbolTable();
+        }
+
+        private List<String> readNodes(JsonReader reader) throws IOException {
+            String[] names = new String[current == null ? 16 : Math.max(16, current.size())];
+            int count = 0;
+            boolean same = current != null;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                String name = reader.nextString();
+                if (same && (count >= current.size() || !current.get(count).equals(name))) {
+                    same = false;
+                }
+                if (count == names.length) {
+                    names = Arrays.copyOf(names, count * 2);
                 }
+                names[count++] = name;
             }
-            return graphs;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
+            reader.endArray();
+            if (same && count == current.size()) {
+                return current;
+            }
+
+            generation++;
+            if (!shared) {
+                symbols = new SymbolTable(count);
+            }
+            for (int v = 0; v < count; v++) {
+                int symbol = symbols.intern(names[v]);
+                if (symbol >= vertexOf.length) {
+                    int capacity = Math.max(symbols.size(), vertexOf.length * 2);
+                    vertexOf = Arrays.copyOf(vertexOf, capacity);
+                    stamp = Arrays.copyOf(stamp, capacity);
+                }
+                vertexOf[symbol] = v;
+                stamp[symbol] = generation;
+                names[v] = symbols.nameOf(symbol); // keep the shared instance, drop the parsed copy
+            }
+            current = Arrays.asList(Arrays.copyOf(names, count));
+            return current;
         }
-    }
 
-    private static class GraphData {
-        // this class supports two variants of input:
-        // 1) { "nodes": ["A","B"], "edges": [{"from":"A","to":"B","weight":1}] }
-        // 2) { "vertices": 3, "edges": [{"source":0,"destination":1,"weight":1}] }
+        // vertex of name in the graph whose nodes were read last, or -1
+        private int vertexOf(String name) {
+            int symbol = symbols.indexOf(name);
+            return symbol >= 0 && symbol < stamp.length && stamp[symbol] == generation ? vertexOf[symbol] : -1;
+        }
+    }
 
-        private int vertices;
-        private List<EdgeData> edgesByIndex;
-        private List<EdgeData> edges;
+    private static final class GraphAccumulator {
+        private final Graph.Builder builder = Graph.builder(0);
+        private final NodeVocabulary vocabulary;
         private List<String> nodes;
+        private int vertices;
+        private boolean graphFields; // set once nodes, vertices or edges was read
 
-        public int getVertices() {
-            return vertices;
-        }
+        // named edges that appeared before "nodes"; resolved once the names are known
+        private List<String> pendingEndpoints;
+        private long[] pendingWeights; // integral values, or double bits from pendingFractionalFrom on
+        private int pendingCount;
+        private int pendingFractionalFrom = Integer.MAX_VALUE;
+
+        // set by the first fractional weight; from then on weights are read as doubles, so
+        // parsing never has to fail more than once per graph
+        private boolean fractional;
 
-        // Gson will map both forms into EdgeData objects; for numeric-edge format edges may be in edgesByIndex
-        public List<EdgeData> getEdgesByIndex() {
-            return edgesByIndex != null ? edgesByIndex : edges;
+        private GraphAccumulator(NodeVocabulary vocabulary) {
+            this.vocabulary = vocabulary;
         }
 
-        public List<EdgeData> getEdges() {
-            return edges;
+        private boolean readField(String name, JsonReader reader) throws IOException {
+            switch (name) {
+                case "nodes":
+                    nodes = vocabulary.readNodes(reader);
+                    break;
+                case "vertices":
+                    vertices = reader.nextInt();
+                    break;
+                case "edges":
+                    readEdges(reader);
+                    break;
+                default:
+                    return false;
+            }
+            graphFields = true;
+            return true;
         }
 
-        public List<String> getNodes() {
-            return nodes;
+        private boolean hasGraphFields() {
+            return graphFields;
         }
 
-        private static class EdgeData {
-            // supports both index-based and name-based representations
-            private Integer source;
-            private Integer destination;
-            private Integer weight;
-            private String from;
-            private String to;
+        private void readEdges(JsonReader reader) throws IOException {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                // supports both index-based and name-based representations
+                int source = -1;
+                int destination = -1;
+                long weight = 0;
+                double fractionalWeight = 0;
+                String from = null;
+                String to = null;
 
-            public int getSource() {
-                return source != null ? source : -1;
-            }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String field = reader.nextName();
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        continue;
+                    }
+                    switch (field) {
+                        case "source" -> source = reader.nextInt();
+                        case "destination" -> destination = reader.nextInt();
+                        case "weight" -> {
+                            if (!fractional) {
+                                try {
+                                    weight = reader.nextLong();
+                                } catch (NumberFormatException e) {
+                                    fractional = true; // the number stays buffered for nextDouble
+                                }
+                            }
+                            if (fractional) {
+                                fractionalWeight = reader.nextDouble();
+                            }
+                        }
+                        case "from" -> from = reader.nextString();
+                        case "to" -> to = reader.nextString();
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
 
-            public int getDestination() {
-                return destination != null ? destination : -1;
+                if (from == null && to == null) {
+                    addEdge(source, destination, weight, fractionalWeight);
+                } else if (nodes != null) {
+                    addEdge(indexOf(from), indexOf(to), weight, fractionalWeight);
+                } else {
+                    addPending(from, to, fractional ? Double.doubleToLongBits(fractionalWeight) : weight);
+                }
             }
+            reader.endArray();
+        }
 
-            public int getWeight() {
-                return weight != null ? weight : 0;
+        private void addEdge(int source, int destination, long weight, double fractionalWeight) {
+            if (fractional) {
+                builder.addEdge(source, destination, fractionalWeight);
+            } else if (weight == (int) weight) {
+                builder.addEdge(source, destination, (int) weight);
+            } else {
+                builder.addEdge(source, destination, weight);
             }
+        }
 
-            public String getFrom() {
-                return from;
+        private void addPending(String from, String to, long weight) {
+            if (pendingEndpoints == null) {
+                pendingEndpoints = new ArrayList<>();
+                pendingWeights = new long[16];
             }
-
-            public String getTo() {
-                return to;
+            if (fractional && pendingFractionalFrom == Integer.MAX_VALUE) {
+                pendingFractionalFrom = pendingCount;
+            }
+            if (pendingCount == pendingWeights.length) {
+                pendingWeights = Arrays.copyOf(pendingWeights, pendingCount * 2);
             }
+            pendingEndpoints.add(from);
+            pendingEndpoints.add(to);
+            pendingWeights[pendingCount++] = weight;
         }
-    }
 
-    private static class GraphsData {
-        private List<GraphData> graphs;
+        private int indexOf(String node) {
+            int index = node == null ? -1 : vocabulary.vertexOf(node);
+            if (index < 0) {
+                throw new JsonParseException("Edge references unknown node " + node);
+            }
+            return index;
+        }
 
-        public List<GraphData> getGraphs() {
-            return graphs;
+        // never null: a graph object without nodes or vertices is the empty graph
+        private Graph build() {
+            if (nodes != null) {
+                for (int i = 0; i < pendingCount; i++) {
+                    int source = indexOf(pendingEndpoints.get(2 * i));
+                    int destination = indexOf(pendingEndpoints.get(2 * i + 1));
+                    if (i >= pendingFractionalFrom) {
+                        builder.addEdge(source, destination, Double.longBitsToDouble(pendingWeights[i]));
+                    } else if (pendingWeights[i] == (int) pendingWeights[i]) {
+                        builder.addEdge(source, destination, (int) pendingWeights[i]);
+                    } else {
+                        builder.addEdge(source, destination, pendingWeights[i]);
+                    }
+                }
+                return builder.vertices(nodes.size()).nodeNames(nodes).build();
+            }
+            if (pendingCount > 0) {
+                throw new JsonParseException("Edge references node " + pendingEndpoints.get(0)
+                        + " but the graph has no nodes list");
+            }
+            if (vertices < 0) {
+                throw new JsonParseException("Negative vertex count " + vertices);
+            }
+            return builder.vertices(vertices).build();
         }
     }
 }
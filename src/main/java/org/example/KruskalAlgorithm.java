@@ -1,102 +1,275 @@
 package org.example;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class KruskalAlgorithm {
+    // E/V ratio from which Filter-Kruskal beats sorting every edge
+    static final int FILTER_MIN_DENSITY = 8;
+    // partitions at or below this size are radix sorted directly
+    static final int FILTER_BASE_CASE = 4096;
+    // heavy partitions at least this large are filtered on the fork-join pool
+    private static final int PARALLEL_FILTER_THRESHOLD = 1 << 16;
+    private static final int FILTER_CHUNK_SIZE = 1 << 13;
 
+    // picks Filter-Kruskal for dense graphs and plain sort-everything Kruskal otherwise
     public static MSTResult findMST(Graph graph) {
-        if (graph.getVertices() == 0 || graph.getEdges().isEmpty()) {
-            return new MSTResult(new ArrayList<>(), 0, 0, 0, 0, 0);
+        return findMST(graph, new CountingMetrics());
+    }
+
+    public static MSTResult findMST(Graph graph, MSTMetrics metrics) {
+        return findMST(graph, metrics, new SolverWorkspace());
+    }
+
+    // reuses the workspace's buffers; see SolverWorkspace
+    public static MSTResult findMST(Graph graph, MSTMetrics metrics, SolverWorkspace workspace) {
+        return findMST(graph, metrics, 1, workspace);
+    }
+
+    static MSTResult findMST(Graph graph, MSTMetrics metrics, int components) {
+        return findMST(graph, metrics, components, new SolverWorkspace());
+    }
+
+    // with the number of connected components known up front, the scan stops once the forest
+    // has V - components edges instead of running through every edge looking for V - 1
+    static MSTResult findMST(Graph graph, MSTMetrics metrics, int components, SolverWorkspace workspace) {
+        int target = Math.max(0, graph.getVertices() - components);
+        MSTSolveEvent event = MSTSolveEvent.start();
+        if (graph.getEdgeCount() >= (long) FILTER_MIN_DENSITY * graph.getVertices()) {
+            return MSTSolveEvent.finish(event, graph,
+                    solveFiltered(graph, ForkJoinPool.commonPool(), metrics, target, workspace));
         }
+        return MSTSolveEvent.finish(event, graph, solveSorted(graph, metrics, target, workspace));
+    }
+
+    public static MSTResult findMSTSorted(Graph graph) {
+        return findMSTSorted(graph, new CountingMetrics());
+    }
 
-        List<Edge> edges = new ArrayList<>(graph.getEdges());
-        edges.sort(Comparator.comparingInt(Edge::getWeight));
+    public static MSTResult findMSTSorted(Graph graph, MSTMetrics metrics) {
+        MSTSolveEvent event = MSTSolveEvent.start();
+        return MSTSolveEvent.finish(event, graph,
+                solveSorted(graph, metrics, graph.getVertices() - 1, new SolverWorkspace()));
+    }
 
-        int[] parent = new int[graph.getVertices()];
-        for (int i = 0; i < parent.length; i++) {
-            parent[i] = i;
+    private static MSTResult solveSorted(Graph graph, MSTMetrics metrics, int target, SolverWorkspace workspace) {
+        int edgeCount = graph.getEdgeCount();
+        if (graph.getVertices() == 0 || edgeCount == 0) {
+            return MSTResult.empty("kruskal", graph.getVertices(), metrics);
         }
 
-        List<Edge> mstEdges = new ArrayList<>();
-        int totalCost = 0;
+        // edge ids ordered by weight via a primitive radix sort, no boxed Edge objects
+        long phase = metrics.phaseStart();
+        int[] order = workspace.edgeOrder(edgeCount);
+        EdgeSort.sortByWeight(graph, order, 0, edgeCount, workspace);
+        metrics.phaseEnd(MSTMetrics.Phase.SORT, phase);
 
-        // operation counters
-        int comparisons = 0; // checks whether roots are equal
-        int findCalls = 0;
-        int unionCalls = 0;
+        int vertices = graph.getVertices();
+        DisjointSet sets = workspace.disjointSet(vertices);
 
-        for (Edge edge : edges) {
-            findCalls++;
-            int root1 = find(parent, edge.getSource());
-            findCalls++;
-            int root2 = find(parent, edge.getDestination());
-            comparisons++;
+        int[] mstEdgeIds = workspace.treeEdges(vertices - 1);
+        int mstEdgeCount = 0;
+
+        // comparisons count checks whether the two roots are equal
+        phase = metrics.phaseStart();
+        for (int i = 0; i < edgeCount; i++) {
+            int edge = order[i];
+            metrics.increment(MSTMetrics.Counter.FIND_CALLS);
+            int root1 = sets.find(graph.getSource(edge));
+            metrics.increment(MSTMetrics.Counter.FIND_CALLS);
+            int root2 = sets.find(graph.getDestination(edge));
+            metrics.increment(MSTMetrics.Counter.COMPARISONS);
 
             if (root1 != root2) {
-                mstEdges.add(edge);
-                totalCost += edge.getWeight();
-                unionCalls++;
-                union(parent, root1, root2);
+                mstEdgeIds[mstEdgeCount++] = edge;
+                metrics.increment(MSTMetrics.Counter.UNION_CALLS);
+                sets.link(root1, root2);
             }
 
-            if (mstEdges.size() == graph.getVertices() - 1) {
+            if (mstEdgeCount == target) {
                 break;
             }
         }
+        metrics.phaseEnd(MSTMetrics.Phase.UNION_FIND, phase);
 
-        int totalOperations = comparisons + findCalls + unionCalls;
-        return new MSTResult(mstEdges, totalCost, totalOperations, comparisons, findCalls, unionCalls);
+        int[] componentIds = new int[vertices];
+        int componentCount = sets.labelComponents(componentIds);
+        return new MSTResult("kruskal", graph, Arrays.copyOf(mstEdgeIds, mstEdgeCount), componentIds, componentCount,
+                metrics);
     }
 
-    private static int find(int[] parent, int vertex) {
-        if (parent[vertex] != vertex) {
-            parent[vertex] = find(parent, parent[vertex]);
-        }
-        return parent[vertex];
+    // Filter-Kruskal: quicksort-style partitioning around a pivot weight. The light side is
+    // solved first, then edges of the heavy side whose endpoints are already connected are
+    // dropped before that side is partitioned or sorted, so most heavy edges are never sorted.
+    public static MSTResult findMSTFiltered(Graph graph, ForkJoinPool pool) {
+        return findMSTFiltered(graph, pool, new CountingMetrics());
     }
 
-    private static void union(int[] parent, int root1, int root2) {
-        parent[root2] = root1;
+    public static MSTResult findMSTFiltered(Graph graph, ForkJoinPool pool, MSTMetrics metrics) {
+        MSTSolveEvent event = MSTSolveEvent.start();
+        return MSTSolveEvent.finish(event, graph,
+                solveFiltered(graph, pool, metrics, graph.getVertices() - 1, new SolverWorkspace()));
     }
 
-    public static class MSTResult {
-        private final List<Edge> edges;
-        private final int totalCost;
-        private final int operations; // summary
-
-        // detailed
-        private final int comparisons;
-        private final int findCalls;
-        private final int unionCalls;
-
-        public MSTResult(List<Edge> edges, int totalCost, int operations, int comparisons, int findCalls, int unionCalls) {
-            this.edges = edges;
-            this.totalCost = totalCost;
-            this.operations = operations;
-            this.comparisons = comparisons;
-            this.findCalls = findCalls;
-            this.unionCalls = unionCalls;
+    private static MSTResult solveFiltered(Graph graph, ForkJoinPool pool, MSTMetrics metrics, int target,
+                                           SolverWorkspace workspace) {
+        int edgeCount = graph.getEdgeCount();
+        if (graph.getVertices() == 0 || edgeCount == 0) {
+            return MSTResult.empty("kruskal", graph.getVertices(), metrics);
         }
 
-        // legacy constructor
-        public MSTResult(List<Edge> edges, int totalCost, int operations) {
-            this(edges, totalCost, operations, 0, 0, 0);
+        FilterState state = new FilterState(graph, pool, metrics, target, workspace);
+        state.solve(workspace.edgeOrder(edgeCount), 0, edgeCount, 0);
+
+        int[] componentIds = new int[graph.getVertices()];
+        int componentCount = state.sets.labelComponents(componentIds);
+        return new MSTResult("kruskal", graph, Arrays.copyOf(state.mstEdgeIds, state.mstEdgeCount), componentIds,
+                componentCount, metrics);
+    }
+
+    private static final class FilterState {
+        private final Graph graph;
+        private final ForkJoinPool pool;
+        private final MSTMetrics metrics;
+        private final int target;
+        private final SolverWorkspace workspace;
+        private final DisjointSet sets;
+        private final int[] mstEdgeIds;
+        private int mstEdgeCount;
+        // introsort-style bound on partitioning rounds along any path: twice the rounds that
+        // halving would take. Past it a partition is radix sorted whole, so pivots that keep
+        // picking near the top of the range cannot nest light sides E / 2 deep.
+        private final int maxDepth;
+
+        private FilterState(Graph graph, ForkJoinPool pool, MSTMetrics metrics, int target,
+                            SolverWorkspace workspace) {
+            int vertices = graph.getVertices();
+            this.graph = graph;
+            this.pool = pool;
+            this.metrics = metrics;
+            this.target = target;
+            this.workspace = workspace;
+            this.sets = workspace.disjointSet(vertices);
+            this.mstEdgeIds = workspace.treeEdges(vertices - 1);
+            this.maxDepth = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(
+                    Math.max(1, graph.getEdgeCount() / FILTER_BASE_CASE)));
+        }
+
+        private boolean done() {
+            return mstEdgeCount == target;
+        }
+
+        // the heavy side is handled by the loop rather than recursion, so only light sides nest;
+        // depth counts the partitioning rounds above [from, to), loop rounds included
+        private void solve(int[] ids, int from, int to, int depth) {
+            while (!done() && to > from) {
+                if (to - from <= FILTER_BASE_CASE || depth >= maxDepth) {
+                    long phase = metrics.phaseStart();
+                    EdgeSort.sortByWeight(graph, ids, from, to, workspace);
+                    metrics.phaseEnd(MSTMetrics.Phase.SORT, phase);
+                    scan(ids, from, to);
+                    return;
+                }
+                depth++;
+
+                long phase = metrics.phaseStart();
+                int pivot = pivotWeight(ids, from, to);
+                // three-way partition: [from, lt) < pivot, [lt, gt) == pivot, [gt, to) > pivot
+                int lt = from;
+                int gt = to;
+                int i = from;
+                while (i < gt) {
+                    int id = ids[i];
+                    int weight = graph.getWeight(id);
+                    if (weight < pivot) {
+                        ids[i++] = ids[lt];
+                        ids[lt++] = id;
+                    } else if (weight > pivot) {
+                        ids[i] = ids[--gt];
+                        ids[gt] = id;
+                    } else {
+                        i++;
+                    }
+                }
+                metrics.phaseEnd(MSTMetrics.Phase.PARTITION, phase);
+
+                solve(ids, from, lt, depth);
+                // equal weights need no sorting; ids keep a deterministic order
+                phase = metrics.phaseStart();
+                Arrays.sort(ids, lt, gt);
+                metrics.phaseEnd(MSTMetrics.Phase.SORT, phase);
+                scan(ids, lt, gt);
+                if (done()) {
+                    return;
+                }
+                from = gt;
+                to = filter(ids, gt, to);
+            }
         }
 
-        public List<Edge> getEdges() {
-            return edges;
+        private int pivotWeight(int[] ids, int from, int to) {
+            int a = graph.getWeight(ids[from]);
+            int b = graph.getWeight(ids[from + (to - from) / 2]);
+            int c = graph.getWeight(ids[to - 1]);
+            return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
         }
 
-        public int getTotalCost() {
-            return totalCost;
+        private void scan(int[] ids, int from, int to) {
+            long phase = metrics.phaseStart();
+            for (int i = from; i < to && !done(); i++) {
+                int edge = ids[i];
+                metrics.increment(MSTMetrics.Counter.FIND_CALLS);
+                int root1 = sets.find(graph.getSource(edge));
+                metrics.increment(MSTMetrics.Counter.FIND_CALLS);
+                int root2 = sets.find(graph.getDestination(edge));
+                metrics.increment(MSTMetrics.Counter.COMPARISONS);
+                if (root1 != root2) {
+                    mstEdgeIds[mstEdgeCount++] = edge;
+                    metrics.increment(MSTMetrics.Counter.UNION_CALLS);
+                    sets.link(root1, root2);
+                }
+            }
+            metrics.phaseEnd(MSTMetrics.Phase.UNION_FIND, phase);
         }
 
-        public int getOperations() {
-            return operations;
+        // compacts ids[from, to) to the edges that still join two components, returns the new end
+        private int filter(int[] ids, int from, int to) {
+            long phase = metrics.phaseStart();
+            int length = to - from;
+            int end;
+            if (length < PARALLEL_FILTER_THRESHOLD) {
+                end = filterRange(ids, from, to);
+            } else {
+                // no unions happen while filtering, so parallel root() calls are safe
+                int chunks = (length + FILTER_CHUNK_SIZE - 1) / FILTER_CHUNK_SIZE;
+                int[] kept = new int[chunks];
+                pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                    int start = from + chunk * FILTER_CHUNK_SIZE;
+                    kept[chunk] = filterRange(ids, start, Math.min(start + FILTER_CHUNK_SIZE, to)) - start;
+                })).join();
+                end = from;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    System.arraycopy(ids, from + chunk * FILTER_CHUNK_SIZE, ids, end, kept[chunk]);
+                    end += kept[chunk];
+                }
+            }
+            metrics.add(MSTMetrics.Counter.FIND_CALLS, 2L * length);
+            metrics.add(MSTMetrics.Counter.COMPARISONS, length);
+            metrics.add(MSTMetrics.Counter.FILTERED_EDGES, to - end);
+            metrics.phaseEnd(MSTMetrics.Phase.FILTER, phase);
+            return end;
         }
 
-        public int getComparisons() { return comparisons; }
-        public int getFindCalls() { return findCalls; }
-        public int getUnionCalls() { return unionCalls; }
+        private int filterRange(int[] ids, int from, int to) {
+            int end = from;
+            for (int i = from; i < to; i++) {
+                int edge = ids[i];
+                if (sets.root(graph.getSource(edge)) != sets.root(graph.getDestination(edge))) {
+                    ids[end++] = edge;
+                }
+            }
+            return end;
+        }
     }
 }
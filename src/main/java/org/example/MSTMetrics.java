@@ -0,0 +1,66 @@
+package org.example;
+
+// Instrumentation hooks called from the algorithms' hot paths. Pass MSTMetrics.NONE when
+// nobody reads the numbers: its methods are empty, so once the JIT inlines the call sites the
+// counting and the clock reads disappear. CountingMetrics records them as long values.
+public interface MSTMetrics {
+    MSTMetrics NONE = new Noop();
+
+    enum Counter {
+        COMPARISONS(true),
+        QUEUE_ADDS(true),   // heap inserts and decrease-key updates
+        POLLS(true),        // extractMin calls
+        FIND_CALLS(true),
+        UNION_CALLS(true),
+        FILTERED_EDGES(false); // edges Filter-Kruskal discarded without sorting them
+
+        private final boolean operation;
+
+        Counter(boolean operation) {
+            this.operation = operation;
+        }
+
+        // whether the counter contributes to the operations_count summary
+        public boolean isOperation() {
+            return operation;
+        }
+    }
+
+    enum Phase {
+        ADJACENCY,     // building the CSR index
+        SORT,          // ordering edges by weight
+        PARTITION,     // Filter-Kruskal pivot partitioning
+        FILTER,        // Filter-Kruskal removal of edges inside one component
+        UNION_FIND,    // Kruskal's scan over sorted edges
+        HEAP,          // Prim's grow loop
+        CHEAPEST_EDGE, // Borůvka's per-component minimum search
+        CONTRACT,      // Borůvka's unions and edge collection
+        COMPONENTS,    // SpanningForest's connected-component labelling and edge bucketing
+        SUBTREES       // SpanningForest's per-component solves, wall-clock across the pool
+    }
+
+    void increment(Counter counter);
+
+    void add(Counter counter, long delta);
+
+    // returns a start token for phaseEnd; implementations that do not time return 0
+    long phaseStart();
+
+    void phaseEnd(Phase phase, long start);
+
+    long get(Counter counter);
+
+    long getPhaseNanos(Phase phase);
+
+    final class Noop implements MSTMetrics {
+        private Noop() {
+        }
+
+        @Override public void increment(Counter counter) { }
+        @Override public void add(Counter counter, long delta) { }
+        @Override public long phaseStart() { return 0; }
+        @Override public void phaseEnd(Phase phase, long start) { }
+        @Override public long get(Counter counter) { return 0; }
+        @Override public long getPhaseNanos(Phase phase) { return 0; }
+    }
+}
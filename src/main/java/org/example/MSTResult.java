@@ -0,0 +1,261 @@
+package org.example;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Result of any MST algorithm. On a disconnected graph it is a minimum spanning forest: one
+// tree per connected component. componentIds maps each vertex to its component, numbered
+// from 0 in order of each component's lowest vertex, so every algorithm labels alike.
+// totalCost is exact for INT and LONG weights; on DOUBLE graphs it is totalWeight rounded,
+// and totalWeight is the reliable figure. A LONG total that does not fit a long is flagged by
+// hasCostOverflow() and getTotalCost() throws; Graph.sumExactWeights has the exact value.
+// The metrics are copied from the MSTMetrics the solve ran with, so they are all zero when it
+// ran with MSTMetrics.NONE.
+public class MSTResult {
+    private static final int[] NO_PHASES = new int[0];
+
+    private final String algorithm;
+    private final List<Edge> edges;
+    private final int[] edgeIds; // graph edge ids parallel to edges
+    private final long totalCost;
+    private final boolean costOverflow;
+    private final double totalWeight;
+    private final int[] componentIds; // per vertex
+    private final int componentCount;
+    private final long[] counters;
+    private final long[] phaseNanos;
+
+    // Borůvka only: components at the start of each phase and MST edges the phase added
+    private final int[] componentsPerPhase;
+    private final int[] edgesPerPhase;
+
+    // the totals are summed from graph's exact weights of the edges in edgeIds
+    public MSTResult(String algorithm, Graph graph, List<Edge> edges, int[] edgeIds, int[] componentIds,
+                     int componentCount, MSTMetrics metrics) {
+        this(algorithm, graph, edges, edgeIds, componentIds, componentCount, metrics, NO_PHASES, NO_PHASES);
+    }
+
+    // edges become a read-only view that builds the Edge objects on first access, so a solve
+    // that only needs ids and totals never creates them
+    public MSTResult(String algorithm, Graph graph, int[] edgeIds, int[] componentIds, int componentCount,
+                     MSTMetrics metrics) {
+        this(algorithm, graph, new EdgeView(graph, edgeIds), edgeIds, componentIds, componentCount, metrics);
+    }
+
+    public MSTResult(String algorithm, Graph graph, List<Edge> edges, int[] edgeIds, int[] componentIds,
+                     int componentCount, MSTMetrics metrics, int[] componentsPerPhase, int[] edgesPerPhase) {
+        this(algorithm, edges, edgeIds, totalCost(graph, edgeIds), costOverflows(graph, edgeIds),
+                totalWeight(graph, edgeIds), componentIds, componentCount,
+                counters(metrics), phaseNanos(metrics), componentsPerPhase, edgesPerPhase);
+    }
+
+    // counters and phaseNanos are indexed by ordinal; used to restore a stored result
+    MSTResult(String algorithm, List<Edge> edges, int[] edgeIds, long totalCost, boolean costOverflow,
+              double totalWeight, int[] componentIds, int componentCount, long[] counters, long[] phaseNanos,
+              int[] componentsPerPhase, int[] edgesPerPhase) {
+        this.algorithm = algorithm;
+        this.edges = edges;
+        this.edgeIds = edgeIds;
+        this.totalCost = totalCost;
+        this.costOverflow = costOverflow;
+        this.totalWeight = totalWeight;
+        this.componentIds = componentIds;
+        this.componentCount = componentCount;
+        this.counters = counters;
+        this.phaseNanos = phaseNanos;
+        this.componentsPerPhase = componentsPerPhase;
+        this.edgesPerPhase = edgesPerPhase;
+    }
+
+    // 0 when the sum overflows, which costOverflows reports
+    private static long totalCost(Graph graph, int[] edgeIds) {
+        if (graph.getWeightType() == Graph.WeightType.DOUBLE) {
+            return Math.round(graph.sumDoubleWeights(edgeIds));
+        }
+        try {
+            return graph.sumWeights(edgeIds);
+        } catch (ArithmeticException e) {
+            return 0;
+        }
+    }
+
+    // LONG totals are summed as doubles too, so they stay meaningful when the long sum overflows
+    private static double totalWeight(Graph graph, int[] edgeIds) {
+        return graph.getWeightType() == Graph.WeightType.INT
+                ? graph.sumWeights(edgeIds)
+                : graph.sumDoubleWeights(edgeIds);
+    }
+
+    static boolean costOverflows(Graph graph, int[] edgeIds) {
+        if (graph.getWeightType() != Graph.WeightType.LONG) {
+            return false;
+        }
+        try {
+            graph.sumWeights(edgeIds);
+            return false;
+        } catch (ArithmeticException e) {
+            return true;
+        }
+    }
+
+    private static long[] counters(MSTMetrics metrics) {
+        MSTMetrics.Counter[] counterKeys = MSTMetrics.Counter.values();
+        long[] counters = new long[counterKeys.length];
+        for (MSTMetrics.Counter counter : counterKeys) {
+            counters[counter.ordinal()] = metrics.get(counter);
+        }
+        return counters;
+    }
+
+    private static long[] phaseNanos(MSTMetrics metrics) {
+        MSTMetrics.Phase[] phaseKeys = MSTMetrics.Phase.values();
+        long[] phaseNanos = new long[phaseKeys.length];
+        for (MSTMetrics.Phase phase : phaseKeys) {
+            phaseNanos[phase.ordinal()] = metrics.getPhaseNanos(phase);
+        }
+        return phaseNanos;
+    }
+
+    // the forest of a graph without edges: every vertex is its own component
+    static MSTResult empty(String algorithm, int vertices, MSTMetrics metrics) {
+        int[] componentIds = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            componentIds[v] = v;
+        }
+        return new MSTResult(algorithm, new ArrayList<>(), new int[0], 0, false, 0, componentIds, vertices,
+                counters(metrics), phaseNanos(metrics), NO_PHASES, NO_PHASES);
+    }
+
+    // a copy holding edge ids but no Edge objects, so keeping it (as ResultCache does) does not
+    // keep the input graph alive; attach gives it edges again
+    MSTResult detach() {
+        return new MSTResult(algorithm, null, edgeIds, totalCost, costOverflow, totalWeight, componentIds,
+                componentCount, counters, phaseNanos, componentsPerPhase, edgesPerPhase);
+    }
+
+    // graph must be the graph the edge ids were solved on, or one with the same ResultCache key
+    MSTResult attach(Graph graph) {
+        return new MSTResult(algorithm, new EdgeView(graph, edgeIds), edgeIds, totalCost, costOverflow, totalWeight,
+                componentIds, componentCount, counters, phaseNanos, componentsPerPhase, edgesPerPhase);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public List<Edge> getEdges() {
+        if (edges == null) {
+            throw new IllegalStateException("The " + algorithm + " result was detached from its graph");
+        }
+        return edges;
+    }
+
+    public int[] getEdgeIds() {
+        return edgeIds;
+    }
+
+    public long getTotalCost() {
+        if (costOverflow) {
+            throw new ArithmeticException("Total cost of the " + algorithm + " result overflows a long");
+        }
+        return totalCost;
+    }
+
+    public boolean hasCostOverflow() {
+        return costOverflow;
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int[] getComponentIds() {
+        return componentIds;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    // edge ids of one component's tree, in result order
+    public int[] getComponentEdgeIds(int component) {
+        List<Edge> edges = getEdges();
+        int[] ids = new int[edges.size()];
+        int count = 0;
+        for (int i = 0; i < edges.size(); i++) {
+            if (componentIds[edges.get(i).getSource()] == component) {
+                ids[count++] = edgeIds[i];
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    // true when the edges form a single spanning tree rather than a forest
+    public boolean isConnected() {
+        return componentCount <= 1;
+    }
+
+    // summary: the sum of every counter marked as an operation
+    public long getOperations() {
+        long operations = 0;
+        for (MSTMetrics.Counter counter : MSTMetrics.Counter.values()) {
+            if (counter.isOperation()) {
+                operations += counters[counter.ordinal()];
+            }
+        }
+        return operations;
+    }
+
+    public long getCounter(MSTMetrics.Counter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    public long getPhaseNanos(MSTMetrics.Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public long getComparisons() { return getCounter(MSTMetrics.Counter.COMPARISONS); }
+    public long getQueueAdds() { return getCounter(MSTMetrics.Counter.QUEUE_ADDS); }
+    public long getPolls() { return getCounter(MSTMetrics.Counter.POLLS); }
+    public long getFindCalls() { return getCounter(MSTMetrics.Counter.FIND_CALLS); }
+    public long getUnionCalls() { return getCounter(MSTMetrics.Counter.UNION_CALLS); }
+    public long getFilteredEdges() { return getCounter(MSTMetrics.Counter.FILTERED_EDGES); }
+    public int getPhases() { return componentsPerPhase.length; }
+    public int[] getComponentsPerPhase() { return componentsPerPhase; }
+    public int[] getEdgesPerPhase() { return edgesPerPhase; }
+
+    // keeps graph for as long as the result lives; ResultCache keeps detached copies instead
+    private static final class EdgeView extends AbstractList<Edge> {
+        private final int[] edgeIds;
+        private final Graph graph;
+        private Edge[] edges;
+
+        private EdgeView(Graph graph, int[] edgeIds) {
+            this.graph = graph;
+            this.edgeIds = edgeIds;
+        }
+
+        private synchronized Edge[] edges() {
+            if (edges == null) {
+                Edge[] built = new Edge[edgeIds.length];
+                for (int i = 0; i < built.length; i++) {
+                    built[i] = graph.getEdge(edgeIds[i]);
+                }
+                edges = built;
+            }
+            return edges;
+        }
+
+        @Override
+        public Edge get(int index) {
+            return edges()[index];
+        }
+
+        @Override
+        public int size() {
+            return edgeIds.length;
+        }
+    }
+}
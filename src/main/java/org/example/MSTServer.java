@@ -0,0 +1,327 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Resident MST service on the JDK HttpServer, so repeated jobs skip JVM start-up and run on
+// warmed solvers. Requests are handled on virtual threads; solving runs on a fixed pool of
+// platform threads. Small graphs from every request go through one queue and are solved in
+// micro-batches of up to MAX_BATCH per pool task, collected for at most the batch window;
+// larger graphs get a task each. Each graph is solved by the engine AdaptiveSolver picks;
+// ?compare=true runs Prim, Kruskal and Borůvka as batch mode does. Results stream back in graph
+// order as they finish, so a client sees the first graph before the last one is solved.
+//   POST /solve   JSON in either input layout, or a .mstg file with Content-Type application/x-mstg
+//   GET  /health  "ok"
+//   GET  /stats   request, graph and batch counts
+public class MSTServer implements AutoCloseable {
+    public static final String BINARY_CONTENT_TYPE = "application/x-mstg";
+    static final int SMALL_GRAPH_EDGES = 10_000; // graphs up to this size are micro-batched
+    static final int MAX_BATCH = 64;
+
+    private final HttpServer http;
+    private final ExecutorService handlers;
+    private final ExecutorService solvers;
+    private final Thread batcher;
+    private final LinkedBlockingQueue<Job> smallGraphs = new LinkedBlockingQueue<>();
+    private final long batchWindowNanos;
+    private final int maxInFlight; // per request, as in BatchRunner
+    private final TimingHarness harness;
+    private final ResultCache cache; // may be null
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder graphs = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedGraphs = new LongAdder();
+
+    // a solved graph, ready to go into the response
+    private interface Reply {
+        void writeTo(ResultWriter writer) throws IOException;
+    }
+
+    private record Job(int graphId, Graph graph, boolean compare, CompletableFuture<Reply> result) { }
+
+    public MSTServer(InetSocketAddress address, int solverThreads, int maxInFlight, Duration batchWindow,
+                     TimingHarness harness, ResultCache cache) throws IOException {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive, got " + maxInFlight);
+        }
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxInFlight = maxInFlight;
+        this.harness = harness;
+        this.cache = cache;
+        this.solvers = Executors.newFixedThreadPool(solverThreads);
+        this.handlers = Executors.newVirtualThreadPerTaskExecutor();
+        this.http = HttpServer.create(address, 0);
+        http.setExecutor(handlers);
+        http.createContext("/solve", exchange -> handle(exchange, this::solve));
+        http.createContext("/health", exchange -> handle(exchange, e -> send(e, 200, "text/plain", "ok")));
+        http.createContext("/stats", exchange -> handle(exchange, this::stats));
+        this.batcher = Thread.ofPlatform().name("mst-batcher").daemon().unstarted(this::batchLoop);
+    }
+
+    // loopback only: the service is meant for local clients
+    public static MSTServer create(int port, int solverThreads, int maxInFlight, TimingHarness harness,
+                                   ResultCache cache) throws IOException {
+        return new MSTServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), solverThreads,
+                maxInFlight, Duration.ofMillis(1), harness, cache);
+    }
+
+    public MSTServer start() {
+        batcher.start();
+        http.start();
+        return this;
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    // solves generated graphs of every batched and unbatched size so the first requests find
+    // compiled solvers; nothing is cached or counted
+    public void warmUp(int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            for (int vertices : new int[]{64, 1_000, 20_000}) {
+                Main.solveGraph(0, GraphGenerator.generate(GraphGenerator.Topology.ERDOS_RENYI, vertices, 8,
+                        GraphGenerator.Weights.UNIFORM_SMALL, round));
+            }
+        }
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try (exchange) {
+            handler.handle(exchange);
+        }
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, "text/plain", "POST a graph file to /solve");
+            return;
+        }
+        requests.increment();
+        Path spooled = null;
+        Closeable source = null;
+        try {
+            // everything up to the first graph is decoded before the status line goes out, so
+            // malformed input gets a 400 rather than a broken 200 stream
+            Iterator<Graph> input;
+            List<Graph> head;
+            try {
+                if (isBinary(exchange)) {
+                    // the binary loader memory-maps a file, so the body is spooled to one first
+                    spooled = Files.createTempFile("mst-request", BinaryGraphFormat.EXTENSION);
+                    try (InputStream body = exchange.getRequestBody()) {
+                        Files.copy(body, spooled, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    input = List.of(BinaryGraphFormat.load(spooled)).iterator();
+                } else {
+                    JSONHandler.GraphIterator json = JSONHandler.openGraphs(
+                            new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+                    source = json;
+                    input = json;
+                }
+                head = input.hasNext() ? List.of(input.next()) : List.of();
+            } catch (IOException | RuntimeException e) {
+                send(exchange, 400, "text/plain", "Unreadable graph input: " + e.getMessage());
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0); // chunked: results are flushed one by one
+            Writer body = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+            try (ResultWriter writer = new ResultWriter(body, Writer.nullWriter())) {
+                try {
+                    stream(head, input, compare(exchange), writer);
+                } catch (RuntimeException e) {
+                    writer.fail(e.getMessage() != null ? e.getMessage() : e.toString());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    writer.fail("Server is shutting down");
+                }
+            }
+        } finally {
+            if (source != null) {
+                source.close();
+            }
+            if (spooled != null) {
+                Files.deleteIfExists(spooled);
+            }
+        }
+    }
+
+    // BatchRunner's loop: at most maxInFlight graphs pending, written strictly in graph_id order.
+    // head holds the graphs already read from input; only input.hasNext() ends the stream.
+    private void stream(List<Graph> head, Iterator<Graph> input, boolean compare, ResultWriter writer)
+            throws IOException, InterruptedException {
+        ArrayDeque<CompletableFuture<Reply>> pending = new ArrayDeque<>();
+        int graphId = 0;
+        try {
+            for (Graph graph : head) {
+                enqueue(++graphId, graph, compare, pending, writer);
+            }
+            while (input.hasNext()) {
+                enqueue(++graphId, input.next(), compare, pending, writer);
+            }
+            while (!pending.isEmpty()) {
+                BatchRunner.await(pending.removeFirst()).writeTo(writer);
+            }
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Unreadable graph input: " + e.getCause().getMessage(), e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void enqueue(int graphId, Graph graph, boolean compare, ArrayDeque<CompletableFuture<Reply>> pending,
+                         ResultWriter writer) throws IOException, InterruptedException {
+        if (graph == null) {
+            throw new IllegalStateException("Graph " + graphId + " could not be read");
+        }
+        while (pending.size() >= maxInFlight) {
+            BatchRunner.await(pending.removeFirst()).writeTo(writer);
+        }
+        pending.addLast(submit(graphId, graph, compare));
+        while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+            BatchRunner.await(pending.removeFirst()).writeTo(writer);
+        }
+    }
+
+    private CompletableFuture<Reply> submit(int graphId, Graph graph, boolean compare) {
+        graphs.increment();
+        if (graph.getEdgeCount() <= SMALL_GRAPH_EDGES) {
+            CompletableFuture<Reply> result = new CompletableFuture<>();
+            smallGraphs.add(new Job(graphId, graph, compare, result));
+            return result;
+        }
+        return CompletableFuture.supplyAsync(() -> solveGraph(graphId, graph, compare), solvers);
+    }
+
+    private Reply solveGraph(int graphId, Graph graph, boolean compare) {
+        if (compare) {
+            GraphResult result = Main.solveGraph(graphId, graph, harness, cache);
+            return writer -> writer.write(result);
+        }
+        EngineResult result = Main.solveSelected(graphId, graph, harness, cache);
+        return writer -> writer.write(result);
+    }
+
+    // takes the first waiting job, then collects more until the batch is full or the window closes
+    private void batchLoop() {
+        List<Job> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (true) {
+                batch.add(smallGraphs.take());
+                long deadline = System.nanoTime() + batchWindowNanos;
+                while (batch.size() < MAX_BATCH) {
+                    Job job = smallGraphs.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (job == null) {
+                        break;
+                    }
+                    batch.add(job);
+                }
+                List<Job> jobs = List.copyOf(batch);
+                batch.clear();
+                batches.increment();
+                batchedGraphs.add(jobs.size());
+                try {
+                    solvers.execute(() -> solveBatch(jobs));
+                } catch (RejectedExecutionException e) {
+                    jobs.forEach(job -> job.result().completeExceptionally(e));
+                }
+            }
+        } catch (InterruptedException e) {
+            // closing: fail whatever is still waiting
+            batch.addAll(smallGraphs);
+            batch.forEach(job -> job.result().cancel(false));
+        }
+    }
+
+    private void solveBatch(List<Job> jobs) {
+        for (Job job : jobs) {
+            if (job.result().isDone()) {
+                continue; // cancelled by its request
+            }
+            try {
+                job.result().complete(solveGraph(job.graphId(), job.graph(), job.compare()));
+            } catch (RuntimeException | Error e) {
+                job.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        send(exchange, 200, "application/json", String.format(Locale.ROOT,
+                "{\"requests\": %d, \"graphs\": %d, \"batches\": %d, \"batched_graphs\": %d}",
+                requests.sum(), graphs.sum(), batches.sum(), batchedGraphs.sum()));
+    }
+
+    // the three-way comparison is opt-in: POST /solve?compare=true
+    private static boolean compare(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        return query != null && Arrays.asList(query.split("&")).contains("compare=true");
+    }
+
+    private static boolean isBinary(HttpExchange exchange) {
+        String type = exchange.getRequestHeaders().getFirst("Content-Type");
+        return type != null && type.startsWith(BINARY_CONTENT_TYPE);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    // an interrupt while waiting stops the remaining solves and stays set for the caller
+    @Override
+    public void close() {
+        http.stop(1);
+        batcher.interrupt();
+        try {
+            batcher.join();
+            handlers.shutdown();
+            solvers.shutdown();
+            if (!solvers.awaitTermination(1, TimeUnit.MINUTES)) {
+                solvers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            handlers.shutdown();
+            solvers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event for one MST solve, carrying the graph size and the metrics of the result.
+// Record with -XX:StartFlightRecording. Solvers call start() before solving and finish() after;
+// when no recording takes the event, start() returns null and a solve allocates no event.
+@Name("org.example.MSTSolve")
+@Label("MST Solve")
+@Category("MST")
+@Description("One run of an MST algorithm")
+class MSTSolveEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Vertices")
+    int vertices;
+
+    @Label("Edges")
+    int edges;
+
+    @Label("Total Cost")
+    long totalCost; // 0 when it overflows a long
+
+    @Label("Operations")
+    long operations;
+
+    @Label("Comparisons")
+    long comparisons;
+
+    @Label("Find Calls")
+    long findCalls;
+
+    @Label("Union Calls")
+    long unionCalls;
+
+    @Label("Queue Adds")
+    long queueAdds;
+
+    @Label("Polls")
+    long polls;
+
+    @Label("Sort Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long sortNanos;
+
+    @Label("Union-Find Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long unionFindNanos;
+
+    @Label("Heap Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long heapNanos;
+
+    private static final EventType TYPE = EventType.getEventType(MSTSolveEvent.class);
+
+    static MSTSolveEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        MSTSolveEvent event = new MSTSolveEvent();
+        event.begin();
+        return event;
+    }
+
+    // returns result, so a solver can end with finish(event, graph, solve(...))
+    static MSTResult finish(MSTSolveEvent event, Graph graph, MSTResult result) {
+        if (event == null) {
+            return result;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = result.getAlgorithm();
+            event.vertices = graph.getVertices();
+            event.edges = graph.getEdgeCount();
+            event.totalCost = result.hasCostOverflow() ? 0 : result.getTotalCost();
+            event.operations = result.getOperations();
+            event.comparisons = result.getComparisons();
+            event.findCalls = result.getFindCalls();
+            event.unionCalls = result.getUnionCalls();
+            event.queueAdds = result.getQueueAdds();
+            event.polls = result.getPolls();
+            event.sortNanos = result.getPhaseNanos(MSTMetrics.Phase.SORT);
+            event.unionFindNanos = result.getPhaseNanos(MSTMetrics.Phase.UNION_FIND);
+            event.heapNanos = result.getPhaseNanos(MSTMetrics.Phase.HEAP);
+            event.commit();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Common entry point for every MST algorithm; all of them return the same MSTResult.
+public interface MSTSolver {
+    String getName();
+
+    MSTResult solve(Graph graph, MSTMetrics metrics);
+
+    default MSTResult solve(Graph graph) {
+        return solve(graph, new CountingMetrics());
+    }
+
+    enum Engine implements MSTSolver {
+        PRIM("prim") {
+            @Override
+            public MSTResult solve(Graph graph, MSTMetrics metrics) {
+                return PrimAlgorithm.findMST(graph, metrics);
+            }
+        },
+        KRUSKAL("kruskal") {
+            @Override
+            public MSTResult solve(Graph graph, MSTMetrics metrics) {
+                return KruskalAlgorithm.findMSTSorted(graph, metrics);
+            }
+        },
+        FILTER_KRUSKAL("filter_kruskal") {
+            @Override
+            public MSTResult solve(Graph graph, MSTMetrics metrics) {
+                return KruskalAlgorithm.findMSTFiltered(graph, ForkJoinPool.commonPool(), metrics);
+            }
+        },
+        BORUVKA("boruvka") {
+            @Override
+            public MSTResult solve(Graph graph, MSTMetrics metrics) {
+                return BoruvkaAlgorithm.findMST(graph, ForkJoinPool.commonPool(), metrics);
+            }
+        };
+
+        private final String name;
+
+        Engine(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -1,152 +1,289 @@
 package org.example;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 public class Main {
+    static final AdaptiveSolver SELECTOR = new AdaptiveSolver();
+
     public static void main(String[] args) {
-        String inputFilePath = "data/input.json";
-        String outputFilePath = "data/output.json";
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(Options.USAGE);
+            return;
+        }
 
-        List<Graph> graphs = JSONHandler.readGraphsFromJSON(inputFilePath);
-        if (graphs == null) {
-            System.out.println("Failed to read graphs from input file.");
+        ResultCache cache;
+        try {
+            cache = options.cache();
+        } catch (IOException e) {
+            System.out.println("Failed to open result cache: " + e.getMessage());
             return;
         }
 
-        List<Map<String, Object>> results = new ArrayList<>();
-
-        for (int i = 0; i < graphs.size(); i++) {
-            Graph graph = graphs.get(i);
-            Map<String, Object> graphResult = new HashMap<>();
-            graphResult.put("graph_id", i + 1);
-
-            Map<String, Integer> inputStats = new HashMap<>();
-            inputStats.put("vertices", graph.getVertices());
-            inputStats.put("edges", graph.getEdges().size());
-            graphResult.put("input_stats", inputStats);
-
-            List<String> nodeNames = graph.getNodeNames();
-
-            // Prim's Algorithm
-            long startTime = System.nanoTime();
-            PrimAlgorithm.MSTResult primResult = PrimAlgorithm.findMST(graph);
-            long endTime = System.nanoTime();
-            double executionTimeMs = (endTime - startTime) / 1_000_000.0;
-
-            Map<String, Object> primStats = new HashMap<>();
-            primStats.put("mst_edges", convertEdgesToOutputFormat(primResult.getEdges(), nodeNames));
-            primStats.put("total_cost", primResult.getTotalCost());
-            primStats.put("operations_count", primResult.getOperations());
-            primStats.put("execution_time_ms", executionTimeMs);
-            // detailed counters if available
-            primStats.put("comparisons", primResult.getComparisons());
-            primStats.put("queue_adds", primResult.getQueueAdds());
-            primStats.put("polls", primResult.getPolls());
-            graphResult.put("prim", primStats);
-
-            // Kruskal's Algorithm
-            startTime = System.nanoTime();
-            KruskalAlgorithm.MSTResult kruskalResult = KruskalAlgorithm.findMST(graph);
-            endTime = System.nanoTime();
-            executionTimeMs = (endTime - startTime) / 1_000_000.0;
-
-            Map<String, Object> kruskalStats = new HashMap<>();
-            kruskalStats.put("mst_edges", convertEdgesToOutputFormat(kruskalResult.getEdges(), nodeNames));
-            kruskalStats.put("total_cost", kruskalResult.getTotalCost());
-            kruskalStats.put("operations_count", kruskalResult.getOperations());
-            kruskalStats.put("execution_time_ms", executionTimeMs);
-            // detailed counters if available
-            kruskalStats.put("comparisons", kruskalResult.getComparisons());
-            kruskalStats.put("find_calls", kruskalResult.getFindCalls());
-            kruskalStats.put("union_calls", kruskalResult.getUnionCalls());
-            graphResult.put("kruskal", kruskalStats);
-
-            // Comparison summary (Prim vs Kruskal) required by the assignment
-            Map<String, Object> comparison = new HashMap<>();
-            int primTotal = primResult.getTotalCost();
-            int kruskalTotal = kruskalResult.getTotalCost();
-            double primTime = (double) primStats.get("execution_time_ms");
-            double kruskalTime = (double) kruskalStats.get("execution_time_ms");
-            int primOps = primResult.getOperations();
-            int kruskalOps = kruskalResult.getOperations();
-
-            comparison.put("prim_total_cost", primTotal);
-            comparison.put("kruskal_total_cost", kruskalTotal);
-            comparison.put("cost_equal", primTotal == kruskalTotal);
-            comparison.put("cost_difference", primTotal - kruskalTotal);
-
-            comparison.put("prim_execution_time_ms", primTime);
-            comparison.put("kruskal_execution_time_ms", kruskalTime);
-            comparison.put("time_difference_ms", primTime - kruskalTime);
-            comparison.put("faster_algorithm", (primTime < kruskalTime) ? "prim" : (primTime > kruskalTime) ? "kruskal" : "equal");
-
-            comparison.put("prim_operations", primOps);
-            comparison.put("kruskal_operations", kruskalOps);
-            comparison.put("operations_difference", primOps - kruskalOps);
-
-            graphResult.put("comparison", comparison);
-
-            results.add(graphResult);
-        }
-
-        // Write detailed JSON output
-        JSONHandler.writeResultsToJSON(outputFilePath, Map.of("results", results));
-
-        // Also write a concise CSV summary for easy comparison/analysis
-        String csvPath = "data/summary.csv";
-        try (FileWriter csvWriter = new FileWriter(csvPath)) {
-            // header
-            csvWriter.append("graph_id,vertices,edges,prim_total_cost,kruskal_total_cost,cost_diff,prim_time_ms,kruskal_time_ms,time_diff_ms,prim_ops,kruskal_ops,ops_diff\n");
-            for (Map<String, Object> graphResult : results) {
-                Map<String, Integer> inputStats = (Map<String, Integer>) graphResult.get("input_stats");
-                Map<String, Object> comparison = (Map<String, Object>) graphResult.get("comparison");
-                csvWriter.append(String.valueOf(graphResult.get("graph_id"))).append(',');
-                csvWriter.append(String.valueOf(inputStats.get("vertices"))).append(',');
-                csvWriter.append(String.valueOf(inputStats.get("edges"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("prim_total_cost"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("kruskal_total_cost"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("cost_difference"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("prim_execution_time_ms"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("kruskal_execution_time_ms"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("time_difference_ms"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("prim_operations"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("kruskal_operations"))).append(',');
-                csvWriter.append(String.valueOf(comparison.get("operations_difference"))).append('\n');
+        if (options.servePort >= 0) {
+            serve(options, cache);
+            return;
+        }
+
+        // graphs are decoded, solved and written one at a time; .mstg inputs are memory-mapped
+        try (ResultWriter writer = new ResultWriter(options.outputPath, options.csvPath)) {
+            if (BinaryGraphFormat.isBinaryGraphFile(options.inputPath)) {
+                solveAll(List.of(BinaryGraphFormat.load(Path.of(options.inputPath))).iterator(), writer, options, cache);
+            } else {
+                try (JSONHandler.GraphIterator graphs = JSONHandler.openGraphs(options.inputPath)) {
+                    solveAll(graphs, writer, options, cache);
+                }
             }
-            System.out.println("Summary CSV written to " + csvPath);
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Failed to process graphs: " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Interrupted while processing graphs");
+            return;
+        }
+
+        if (cache != null) {
+            System.out.println("Result cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses");
+        }
+        System.out.println("Summary CSV written to " + options.csvPath);
+        System.out.println("Results written to " + options.outputPath);
+    }
+
+    // the HTTP dispatcher thread keeps the JVM alive; Ctrl-C stops the server
+    private static void serve(Options options, ResultCache cache) {
+        MSTServer server;
+        try {
+            server = MSTServer.create(options.servePort, options.threads, options.maxInFlight, options.harness(), cache);
         } catch (IOException e) {
-            System.out.println("Failed to write CSV summary: " + e.getMessage());
+            System.out.println("Failed to start server: " + e.getMessage());
+            return;
         }
+        server.warmUp(options.serveWarmupRounds);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Serving on http://127.0.0.1:" + server.getPort() + "/solve");
+    }
 
-        System.out.println("Results written to " + outputFilePath);
+    private static void solveAll(Iterator<Graph> graphs, ResultWriter writer, Options options, ResultCache cache)
+            throws IOException, InterruptedException {
+        if (options.parallel) {
+            try (BatchRunner runner = BatchRunner.create(options.virtualThreads, options.threads, options.maxInFlight,
+                    options.harness(), cache)) {
+                runner.run(graphs, writer);
+            }
+        } else {
+            int graphId = 0;
+            while (graphs.hasNext()) {
+                writer.write(solveGraph(++graphId, graphs.next(), options.harness(), cache));
+            }
+        }
     }
 
-    private static List<Map<String, Object>> convertEdgesToOutputFormat(List<Edge> edges, List<String> nodeNames) {
-        List<Map<String, Object>> out = new ArrayList<>();
-        for (Edge e : edges) {
-            Map<String, Object> m = new HashMap<>();
-            String from;
-            String to;
-            if (nodeNames != null && e.getSource() >= 0 && e.getSource() < nodeNames.size()) {
-                from = nodeNames.get(e.getSource());
-            } else {
-                from = String.valueOf(e.getSource());
+    static GraphResult solveGraph(int graphId, Graph graph) {
+        return solveGraph(graphId, graph, TimingHarness.SINGLE_RUN);
+    }
+
+    static GraphResult solveGraph(int graphId, Graph graph, TimingHarness harness) {
+        return new GraphResult(graphId, graph, solvePrim(graph, harness), solveKruskal(graph, harness),
+                solveBoruvka(graph, harness), SELECTOR.select(graph));
+    }
+
+    // with a cache (may be null) a graph solved before skips the solvers
+    static GraphResult solveGraph(int graphId, Graph graph, TimingHarness harness, ResultCache cache) {
+        if (cache == null) {
+            return solveGraph(graphId, graph, harness);
+        }
+        String key = ResultCache.key(graph, harness);
+        ResultCache.Entry cached = cache.get(key, graph);
+        if (cached != null) {
+            return cachedResult(graphId, graph, cached);
+        }
+        GraphResult result = new GraphResult(graphId, graph, solvePrim(graph, harness), solveKruskal(graph, harness),
+                solveBoruvka(graph, harness), SELECTOR.select(graph), ResultCache.Status.MISS);
+        cache.put(key, result);
+        return result;
+    }
+
+    // only the engine SELECTOR picks; a cached comparison supplies that engine's report. Kruskal
+    // engines go through KruskalAlgorithm.findMST, which picks plain or Filter-Kruskal by the
+    // same density threshold as the selector.
+    static EngineResult solveSelected(int graphId, Graph graph, TimingHarness harness, ResultCache cache) {
+        AdaptiveSolver.Selection selection = SELECTOR.select(graph);
+        ResultCache.Entry cached = cache != null ? cache.get(ResultCache.key(graph, harness), graph) : null;
+        AlgorithmReport report = switch (selection.getEngine()) {
+            case PRIM -> cached != null ? primReport(graph, cached.getPrim()) : solvePrim(graph, harness);
+            case KRUSKAL, FILTER_KRUSKAL -> cached != null
+                    ? kruskalReport(graph, cached.getKruskal()) : solveKruskal(graph, harness);
+            case BORUVKA -> cached != null ? boruvkaReport(graph, cached.getBoruvka()) : solveBoruvka(graph, harness);
+        };
+        ResultCache.Status status = cache == null ? ResultCache.Status.OFF
+                : cached != null ? ResultCache.Status.HIT : ResultCache.Status.MISS;
+        return new EngineResult(graphId, graph, selection, report, status);
+    }
+
+    static GraphResult cachedResult(int graphId, Graph graph, ResultCache.Entry cached) {
+        return new GraphResult(graphId, graph, primReport(graph, cached.getPrim()),
+                kruskalReport(graph, cached.getKruskal()), boruvkaReport(graph, cached.getBoruvka()),
+                SELECTOR.select(graph), ResultCache.Status.HIT);
+    }
+
+    // Prim's Algorithm; the timed runs share one pooled workspace, so only the first may grow it
+    static AlgorithmReport solvePrim(Graph graph, TimingHarness harness) {
+        SolverWorkspace workspace = SolverWorkspace.POOL.acquire();
+        try {
+            return primReport(graph, harness.measure(
+                    () -> PrimAlgorithm.findMST(graph, new CountingMetrics(), workspace)));
+        } finally {
+            SolverWorkspace.POOL.release(workspace);
+        }
+    }
+
+    static AlgorithmReport primReport(Graph graph, TimingHarness.Measurement<MSTResult> measurement) {
+        MSTResult primResult = measurement.getResult();
+        return new AlgorithmReport(graph, primResult, measurement)
+                .counter("comparisons", primResult.getComparisons())
+                .counter("queue_adds", primResult.getQueueAdds())
+                .counter("polls", primResult.getPolls());
+    }
+
+    // Kruskal's Algorithm
+    static AlgorithmReport solveKruskal(Graph graph, TimingHarness harness) {
+        SolverWorkspace workspace = SolverWorkspace.POOL.acquire();
+        try {
+            return kruskalReport(graph, harness.measure(
+                    () -> KruskalAlgorithm.findMST(graph, new CountingMetrics(), workspace)));
+        } finally {
+            SolverWorkspace.POOL.release(workspace);
+        }
+    }
+
+    static AlgorithmReport kruskalReport(Graph graph, TimingHarness.Measurement<MSTResult> measurement) {
+        MSTResult kruskalResult = measurement.getResult();
+        return new AlgorithmReport(graph, kruskalResult, measurement)
+                .counter("comparisons", kruskalResult.getComparisons())
+                .counter("find_calls", kruskalResult.getFindCalls())
+                .counter("union_calls", kruskalResult.getUnionCalls())
+                .counter("filtered_edges", kruskalResult.getFilteredEdges());
+    }
+
+    // Parallel Borůvka
+    static AlgorithmReport solveBoruvka(Graph graph, TimingHarness harness) {
+        return boruvkaReport(graph, harness.measure(() -> BoruvkaAlgorithm.findMST(graph)));
+    }
+
+    static AlgorithmReport boruvkaReport(Graph graph, TimingHarness.Measurement<MSTResult> measurement) {
+        MSTResult boruvkaResult = measurement.getResult();
+        return new AlgorithmReport(graph, boruvkaResult, measurement)
+                .counter("comparisons", boruvkaResult.getComparisons())
+                .counter("find_calls", boruvkaResult.getFindCalls())
+                .counter("union_calls", boruvkaResult.getUnionCalls())
+                .counter("phases", boruvkaResult.getPhases())
+                .series("components_per_phase", boruvkaResult.getComponentsPerPhase())
+                .series("edges_per_phase", boruvkaResult.getEdgesPerPhase());
+    }
+
+    // command line: --input=, --output=, --csv=, --parallel, --threads=, --virtual, --max-in-flight=, --warmup=, --repeat=,
+    // --cache=, --cache-memory-mb=, --cache-disk-mb=, --cache-max-age-hours=, --serve=, --serve-warmup=
+    static final class Options {
+        static final String USAGE = "Usage: Main [--input=data/input.json] [--output=data/output.json] [--csv=data/summary.csv]"
+                + " [--parallel [--threads=N | --virtual] [--max-in-flight=N]] [--warmup=N] [--repeat=N]"
+                + " [--cache=DIR [--cache-memory-mb=N] [--cache-disk-mb=N] [--cache-max-age-hours=N]]"
+                + " [--serve=PORT [--serve-warmup=N]]";
+
+        String inputPath = "data/input.json";
+        String outputPath = "data/output.json";
+        String csvPath = "data/summary.csv";
+        boolean parallel;
+        boolean virtualThreads;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+        int warmup = 0;
+        int repeat = 1;
+        String cachePath; // null disables the result cache
+        int cacheMemoryMb = 64;
+        int cacheDiskMb = 1024;
+        int cacheMaxAgeHours = 24 * 7;
+        int servePort = -1; // -1 runs the batch job; 0 serves on any free port
+        int serveWarmupRounds = 20;
+
+        TimingHarness harness() {
+            return new TimingHarness(warmup, repeat);
+        }
+
+        ResultCache cache() throws IOException {
+            if (cachePath == null) {
+                return null;
             }
-            if (nodeNames != null && e.getDestination() >= 0 && e.getDestination() < nodeNames.size()) {
-                to = nodeNames.get(e.getDestination());
-            } else {
-                to = String.valueOf(e.getDestination());
+            return new ResultCache(Path.of(cachePath), cacheMemoryMb * (1L << 20), cacheDiskMb * (1L << 20),
+                    Duration.ofHours(cacheMaxAgeHours));
+        }
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                String key = eq < 0 ? arg : arg.substring(0, eq);
+                String value = eq < 0 ? null : arg.substring(eq + 1);
+                switch (key) {
+                    case "--input" -> options.inputPath = require(key, value);
+                    case "--output" -> options.outputPath = require(key, value);
+                    case "--csv" -> options.csvPath = require(key, value);
+                    case "--parallel" -> options.parallel = true;
+                    case "--virtual" -> options.virtualThreads = true;
+                    case "--threads" -> options.threads = positive(key, value);
+                    case "--max-in-flight" -> options.maxInFlight = positive(key, value);
+                    case "--warmup" -> options.warmup = nonNegative(key, value);
+                    case "--repeat" -> options.repeat = positive(key, value);
+                    case "--cache" -> options.cachePath = require(key, value);
+                    case "--cache-memory-mb" -> options.cacheMemoryMb = nonNegative(key, value);
+                    case "--cache-disk-mb" -> options.cacheDiskMb = nonNegative(key, value);
+                    case "--cache-max-age-hours" -> options.cacheMaxAgeHours = positive(key, value);
+                    case "--serve" -> options.servePort = nonNegative(key, value);
+                    case "--serve-warmup" -> options.serveWarmupRounds = nonNegative(key, value);
+                    default -> throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            return options;
+        }
+
+        static String require(String key, String value) {
+            if (value == null || value.isEmpty()) {
+                throw new IllegalArgumentException("Option " + key + " needs a value");
+            }
+            return value;
+        }
+
+        static int positive(String key, String value) {
+            int parsed = integer(key, value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException("Option " + key + " needs a positive integer, got " + value);
+            }
+            return parsed;
+        }
+
+        static int nonNegative(String key, String value) {
+            int parsed = integer(key, value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Option " + key + " must not be negative, got " + value);
+            }
+            return parsed;
+        }
+
+        static int integer(String key, String value) {
+            try {
+                return Integer.parseInt(require(key, value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Option " + key + " needs an integer, got " + value);
             }
-            m.put("from", from);
-            m.put("to", to);
-            m.put("weight", e.getWeight());
-            out.add(m);
         }
-        return out;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Pairing heap over vertex ids with the tree kept in primitive arrays (leftmost child, next
+// sibling, and prev: the previous sibling, or the parent for a leftmost child). insert and
+// decreaseKey are a constant-time cut and meld; extractMin melds the root's children in the
+// usual two passes, amortised O(log n). Suits graphs with many decrease-keys per extraction.
+public class PairingHeap implements VertexQueue {
+    private static final int NONE = -1;
+
+    private final int[] child;
+    private final int[] sibling;
+    private final int[] prev;
+    private final int[] keys;
+    private final boolean[] queued;
+    private final int[] pairs; // scratch for the two-pass meld
+    private int root = NONE;
+    private int size;
+
+    public PairingHeap(int capacity) {
+        this.child = new int[capacity];
+        this.sibling = new int[capacity];
+        this.prev = new int[capacity];
+        this.keys = new int[capacity];
+        this.queued = new boolean[capacity];
+        this.pairs = new int[capacity];
+        Arrays.fill(child, NONE);
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int vertex) {
+        return queued[vertex];
+    }
+
+    @Override
+    public int keyOf(int vertex) {
+        return keys[vertex];
+    }
+
+    @Override
+    public void insert(int vertex, int key) {
+        keys[vertex] = key;
+        queued[vertex] = true;
+        sibling[vertex] = NONE;
+        prev[vertex] = NONE;
+        root = meld(root, vertex);
+        size++;
+    }
+
+    @Override
+    public void decreaseKey(int vertex, int key) {
+        keys[vertex] = key;
+        if (vertex == root) {
+            return;
+        }
+        // cut the subtree out of its sibling list and meld it with the root
+        int before = prev[vertex];
+        if (child[before] == vertex) {
+            child[before] = sibling[vertex];
+        } else {
+            sibling[before] = sibling[vertex];
+        }
+        if (sibling[vertex] != NONE) {
+            prev[sibling[vertex]] = before;
+        }
+        sibling[vertex] = NONE;
+        prev[vertex] = NONE;
+        root = meld(root, vertex);
+    }
+
+    @Override
+    public int extractMin() {
+        int min = root;
+        int count = 0;
+        for (int c = child[min]; c != NONE; ) {
+            int following = sibling[c];
+            sibling[c] = NONE;
+            prev[c] = NONE;
+            pairs[count++] = c;
+            c = following;
+        }
+        child[min] = NONE;
+        queued[min] = false;
+        size--;
+
+        // pass 1 melds neighbours left to right, pass 2 folds the pairs right to left
+        int paired = 0;
+        for (int i = 0; i < count; i += 2) {
+            pairs[paired++] = i + 1 < count ? meld(pairs[i], pairs[i + 1]) : pairs[i];
+        }
+        int merged = NONE;
+        for (int i = paired - 1; i >= 0; i--) {
+            merged = meld(merged, pairs[i]);
+        }
+        root = merged;
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        while (size > 0) {
+            extractMin();
+        }
+    }
+
+    // a and b are detached roots; the larger key becomes the leftmost child of the smaller
+    private int meld(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        if (keys[b] < keys[a]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        int first = child[a];
+        sibling[b] = first;
+        if (first != NONE) {
+            prev[first] = b;
+        }
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+}
@@ -1,107 +1,128 @@
 package org.example;
 
-import java.util.*;
+import java.util.Arrays;
 
 public class PrimAlgorithm {
-
-    public static MSTResult findMST(Graph graph) {
-        int vertices = graph.getVertices();
-        boolean[] visited = new boolean[vertices];
-        PriorityQueue<Edge> priorityQueue = new PriorityQueue<>(Comparator.comparingInt(Edge::getWeight));
-        List<Edge> mstEdges = new ArrayList<>();
-        int totalCost = 0;
-
-        // operation counters
-        int comparisons = 0; // checks of visited status
-        int queueAdds = 0;   // number of times an edge is added to PQ
-        int polls = 0;       // number of times PQ.poll() is called
-
-        if (vertices == 0 || graph.getEdges().isEmpty()) {
-            return new MSTResult(new ArrayList<>(), 0, 0, 0, 0, 0);
+    // widest key range (max - min + 1) that AUTO hands to a bucket queue
+    static final int BUCKET_MAX_RANGE = 1 << 12;
+
+    // AUTO picks BUCKET for narrow weight ranges (typed graphs count their distinct weights,
+    // since Prim works on ranks) and the 4-ary HEAP otherwise, which measured faster than
+    // the pairing heap on every generated shape
+    public enum Queue {
+        AUTO, BUCKET, PAIRING, HEAP;
+
+        VertexQueue create(Graph graph, SolverWorkspace workspace) {
+            int vertices = graph.getVertices();
+            return switch (this) {
+                case HEAP -> workspace.heap(vertices);
+                case PAIRING -> workspace.pairing(vertices);
+                case BUCKET, AUTO -> {
+                    int minWeight = Integer.MAX_VALUE;
+                    int maxWeight = Integer.MIN_VALUE;
+                    for (int e = 0, edgeCount = graph.getEdgeCount(); e < edgeCount; e++) {
+                        int weight = graph.getWeight(e);
+                        minWeight = Math.min(minWeight, weight);
+                        maxWeight = Math.max(maxWeight, weight);
+                    }
+                    if (this == AUTO && (long) maxWeight - minWeight >= BUCKET_MAX_RANGE) {
+                        yield workspace.heap(vertices);
+                    }
+                    yield workspace.buckets(vertices, minWeight, maxWeight);
+                }
+            };
         }
+    }
 
-        // Start from vertex 0
-        visited[0] = true;
-        for (Edge edge : graph.getEdges()) {
-            if (edge.getSource() == 0 || edge.getDestination() == 0) {
-                priorityQueue.add(edge);
-                queueAdds++;
-            }
-        }
+    public static MSTResult findMST(Graph graph) {
+        return findMST(graph, new CountingMetrics());
+    }
 
-        while (!priorityQueue.isEmpty() && mstEdges.size() < vertices - 1) {
-            Edge edge = priorityQueue.poll();
-            polls++;
-
-            int nextVertex = -1;
-            comparisons++;
-            if (!visited[edge.getSource()]) {
-                nextVertex = edge.getSource();
-            } else {
-                comparisons++;
-                if (!visited[edge.getDestination()]) {
-                    nextVertex = edge.getDestination();
-                }
-            }
+    public static MSTResult findMST(Graph graph, MSTMetrics metrics) {
+        return findMST(graph, metrics, Queue.AUTO);
+    }
 
-            if (nextVertex != -1) {
-                visited[nextVertex] = true;
-                mstEdges.add(edge);
-                totalCost += edge.getWeight();
-
-                for (Edge nextEdge : graph.getEdges()) {
-                    comparisons++;
-                    if ((nextEdge.getSource() == nextVertex && !visited[nextEdge.getDestination()]) ||
-                        (nextEdge.getDestination() == nextVertex && !visited[nextEdge.getSource()])) {
-                        priorityQueue.add(nextEdge);
-                        queueAdds++;
-                    }
-                }
-            }
-        }
+    public static MSTResult findMST(Graph graph, MSTMetrics metrics, Queue queue) {
+        return findMST(graph, metrics, queue, new SolverWorkspace());
+    }
 
-        int totalOperations = comparisons + queueAdds + polls;
-        return new MSTResult(mstEdges, totalCost, totalOperations, comparisons, queueAdds, polls);
+    // reuses the workspace's buffers; see SolverWorkspace
+    public static MSTResult findMST(Graph graph, MSTMetrics metrics, SolverWorkspace workspace) {
+        return findMST(graph, metrics, Queue.AUTO, workspace);
     }
 
-    public static class MSTResult {
-        private final List<Edge> edges;
-        private final int totalCost;
-        private final int operations; // summary
-
-        // detailed
-        private final int comparisons;
-        private final int queueAdds;
-        private final int polls;
-
-        public MSTResult(List<Edge> edges, int totalCost, int operations, int comparisons, int queueAdds, int polls) {
-            this.edges = edges;
-            this.totalCost = totalCost;
-            this.operations = operations;
-            this.comparisons = comparisons;
-            this.queueAdds = queueAdds;
-            this.polls = polls;
-        }
+    public static MSTResult findMST(Graph graph, MSTMetrics metrics, Queue queue, SolverWorkspace workspace) {
+        MSTSolveEvent event = MSTSolveEvent.start();
+        return MSTSolveEvent.finish(event, graph, solve(graph, metrics, queue, workspace));
+    }
 
-        // legacy constructor for compatibility
-        public MSTResult(List<Edge> edges, int totalCost, int operations) {
-            this(edges, totalCost, operations, 0, 0, 0);
-        }
+    private static MSTResult solve(Graph graph, MSTMetrics metrics, Queue queue, SolverWorkspace workspace) {
+        int vertices = graph.getVertices();
 
-        public List<Edge> getEdges() {
-            return edges;
+        if (vertices == 0 || graph.getEdgeCount() == 0) {
+            return MSTResult.empty("prim", vertices, metrics);
         }
 
-        public int getTotalCost() {
-            return totalCost;
-        }
+        // CSR adjacency index, built once per graph and shared with later calls
+        long phase = metrics.phaseStart();
+        Graph.Adjacency adjacency = graph.getAdjacency();
+        metrics.phaseEnd(MSTMetrics.Phase.ADJACENCY, phase);
+
+        boolean[] visited = workspace.visited(vertices);
+        int[] bestEdge = workspace.vertexEdges(vertices); // edge id of the cheapest known connection
+        VertexQueue heap = queue.create(graph, workspace);
+        int[] mstEdgeIds = workspace.treeEdges(vertices - 1);
+        int mstEdgeCount = 0;
+
+        int[] componentIds = new int[vertices];
+        int componentCount = 0;
+
+        // comparisons count checks of visited status / current key while relaxing neighbours
+        phase = metrics.phaseStart();
+        // grow a tree from the lowest unvisited vertex; on a disconnected graph each restart
+        // starts the next component's tree, so the result is a spanning forest
+        for (int start = 0; start < vertices; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            int component = componentCount++;
+            int current = start;
+            while (true) {
+                visited[current] = true;
+                componentIds[current] = component;
+                for (int i = adjacency.getStart(current), end = adjacency.getEnd(current); i < end; i++) {
+                    int next = adjacency.getAdjacentVertex(i);
+                    metrics.increment(MSTMetrics.Counter.COMPARISONS);
+                    if (visited[next]) {
+                        continue;
+                    }
+                    int edge = adjacency.getAdjacentEdge(i);
+                    int weight = graph.getWeight(edge);
+                    if (!heap.contains(next)) {
+                        heap.insert(next, weight);
+                        bestEdge[next] = edge;
+                        metrics.increment(MSTMetrics.Counter.QUEUE_ADDS);
+                    } else {
+                        metrics.increment(MSTMetrics.Counter.COMPARISONS);
+                        if (weight < heap.keyOf(next)) {
+                            heap.decreaseKey(next, weight);
+                            bestEdge[next] = edge;
+                            metrics.increment(MSTMetrics.Counter.QUEUE_ADDS);
+                        }
+                    }
+                }
 
-        public int getOperations() {
-            return operations;
+                if (heap.isEmpty()) {
+                    break;
+                }
+                current = heap.extractMin();
+                metrics.increment(MSTMetrics.Counter.POLLS);
+                mstEdgeIds[mstEdgeCount++] = bestEdge[current];
+            }
         }
+        metrics.phaseEnd(MSTMetrics.Phase.HEAP, phase);
 
-        public int getComparisons() { return comparisons; }
-        public int getQueueAdds() { return queueAdds; }
-        public int getPolls() { return polls; }
+        return new MSTResult("prim", graph, Arrays.copyOf(mstEdgeIds, mstEdgeCount), componentIds, componentCount,
+                metrics);
     }
 }
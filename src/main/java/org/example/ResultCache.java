@@ -0,0 +1,426 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Content-addressed cache of solved graphs, so a graph seen in an earlier run skips all three
+// solvers. The key is a 128-bit hash over the canonical edge arrays (each edge as min endpoint,
+// max endpoint, exact weight, in edge-id order) plus V, the weight type and the timing settings:
+// one pass over E, and stored edge ids stay valid for every graph with the same key. Entries
+// live in an in-memory LRU and as one file per key under the cache directory. Each tier drops
+// least recently used entries beyond its byte budget, and entries written longer than maxAge
+// ago count as misses.
+// The two LRU indexes are guarded by the cache's lock, but files are read, written and deleted
+// outside it, so one cache serves a parallel batch without queueing every worker behind disk I/O.
+public class ResultCache {
+    private static final int MAGIC = 0x4D535452; // "MSTR"
+    private static final int VERSION = 3;
+    private static final String SUFFIX = ".mstr";
+
+    public enum Status {
+        HIT, MISS, OFF; // OFF: the run had no cache
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final long maxAgeMillis;
+
+    // access-ordered, so iteration starts at the least recently used key
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true); // key -> file bytes
+    private long memoryBytes;
+    private long diskBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ResultCache(Path directory, long maxMemoryBytes, long maxDiskBytes, Duration maxAge) throws IOException {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.maxAgeMillis = maxAge.toMillis();
+        Files.createDirectories(directory);
+
+        // index the files of earlier runs, oldest first, dropping expired ones and torn writes
+        record Stored(Path file, long modified, long bytes) { }
+        List<Stored> stored = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                } else if (file.getFileName().toString().endsWith(SUFFIX)) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    stored.add(new Stored(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+                }
+            }
+        }
+        stored.sort(Comparator.comparingLong(Stored::modified));
+        for (Stored file : stored) {
+            if (expired(file.modified())) {
+                Files.deleteIfExists(file.file());
+            } else {
+                String name = file.file().getFileName().toString();
+                disk.put(name.substring(0, name.length() - SUFFIX.length()), file.bytes());
+                diskBytes += file.bytes();
+            }
+        }
+        for (Path evicted : evictDisk()) {
+            Files.deleteIfExists(evicted);
+        }
+    }
+
+    public static String key(Graph graph, TimingHarness harness) {
+        long h1 = 0x9E3779B97F4A7C15L ^ graph.getVertices() ^ (long) graph.getWeightType().ordinal() << 40;
+        long h2 = 0xC2B2AE3D27D4EB4FL ^ ((long) harness.getWarmupIterations() << 32 | harness.getRepetitions());
+        int edgeCount = graph.getEdgeCount();
+        for (int e = 0; e < edgeCount; e++) {
+            int source = graph.getSource(e);
+            int destination = graph.getDestination(e);
+            long endpoints = (long) Math.min(source, destination) << 32 | (Math.max(source, destination) & 0xFFFFFFFFL);
+            long weight = graph.getWeightKey(e);
+            h1 = Long.rotateLeft(h1 ^ mix(endpoints ^ weight * 0x9FB21C651E98DF25L), 31) * 0x87C37B91114253D5L;
+            h2 = Long.rotateLeft(h2 ^ mix(endpoints * 0x4CF5AD432745937FL + weight), 29) * 0x52DCE729L;
+        }
+        h1 = mix(h1 ^ edgeCount);
+        h2 = mix(h2 ^ ((long) edgeCount << 32 | graph.getVertices()));
+        return String.format(Locale.ROOT, "%016x%016x", h1, h2);
+    }
+
+    // MurmurHash3's 64-bit finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    // the stored results for key, or null; graph must be the graph the key was computed from
+    public Entry get(String key, Graph graph) {
+        Entry entry;
+        boolean onDisk;
+        synchronized (this) {
+            entry = memory.get(key);
+            if (entry != null && expired(entry.createdMillis)) {
+                removeFromMemory(key);
+                entry = null;
+            }
+            onDisk = entry == null && disk.containsKey(key);
+        }
+        if (onDisk) {
+            entry = load(key, graph);
+            if (entry != null) {
+                synchronized (this) {
+                    addToMemory(key, entry);
+                }
+            }
+        }
+        (entry != null ? hits : misses).incrementAndGet();
+        return entry != null ? entry.attach(graph) : null;
+    }
+
+    public void put(String key, GraphResult result) {
+        Entry entry = new Entry(restore(result.getPrim()), restore(result.getKruskal()), restore(result.getBoruvka()),
+                System.currentTimeMillis());
+        synchronized (this) {
+            addToMemory(key, entry);
+        }
+        store(key, result.getGraph(), entry);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private boolean expired(long createdMillis) {
+        return System.currentTimeMillis() - createdMillis > maxAgeMillis;
+    }
+
+    private static TimingHarness.Measurement<MSTResult> restore(AlgorithmReport report) {
+        TimingHarness.Measurement<?> timing = report.getTiming();
+        return TimingHarness.restore(report.getResult().detach(), timing.getSortedTimesMs(),
+                timing.getAllocatedBytesPerRun(), timing.getGcTimeMs());
+    }
+
+    // addToMemory, removeFromMemory and evictDisk run under the cache's lock
+    private void addToMemory(String key, Entry entry) {
+        removeFromMemory(key);
+        memory.put(key, entry);
+        memoryBytes += entry.bytes;
+        Iterator<Map.Entry<String, Entry>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            memoryBytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+        }
+    }
+
+    private void removeFromMemory(String key) {
+        Entry removed = memory.remove(key);
+        if (removed != null) {
+            memoryBytes -= removed.bytes;
+        }
+    }
+
+    // drops the least recently used files from the index; the caller deletes them after unlocking
+    private List<Path> evictDisk() {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> eldest = disk.entrySet().iterator();
+        while (diskBytes > maxDiskBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> file = eldest.next();
+            evicted.add(file(file.getKey()));
+            diskBytes -= file.getValue();
+            eldest.remove();
+        }
+        return evicted;
+    }
+
+    private void removeFromDisk(String key) throws IOException {
+        synchronized (this) {
+            Long bytes = disk.remove(key);
+            if (bytes != null) {
+                diskBytes -= bytes;
+            }
+        }
+        Files.deleteIfExists(file(key));
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    // a failed disk write only costs the next run a miss, so it is reported and not rethrown
+    private void store(String key, Graph graph, Entry entry) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(graph.getVertices());
+                out.writeInt(graph.getEdgeCount());
+                writeMeasurement(out, entry.prim);
+                writeMeasurement(out, entry.kruskal);
+                writeMeasurement(out, entry.boruvka);
+            }
+            Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+            long bytes = Files.size(file(key));
+            List<Path> evicted;
+            synchronized (this) {
+                Long previous = disk.put(key, bytes);
+                diskBytes += bytes - (previous != null ? previous : 0);
+                evicted = evictDisk();
+            }
+            for (Path file : evicted) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Result cache: could not store " + key + ": " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // the next run's directory scan removes it
+                }
+            }
+        }
+    }
+
+    // an unreadable, stale or foreign file is deleted and treated as a miss
+    private Entry load(String key, Graph graph) {
+        Path file = file(key);
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (expired(modified)) {
+                removeFromDisk(key);
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION
+                        || in.readInt() != graph.getVertices() || in.readInt() != graph.getEdgeCount()) {
+                    throw new IOException("not a result for this graph");
+                }
+                return new Entry(readMeasurement(in, graph), readMeasurement(in, graph), readMeasurement(in, graph),
+                        modified);
+            }
+        } catch (IOException e) {
+            try {
+                removeFromDisk(key);
+            } catch (IOException ignored) {
+                // already gone from the index, so it is never read again this run
+            }
+            return null;
+        }
+    }
+
+    private static void writeMeasurement(DataOutputStream out, TimingHarness.Measurement<MSTResult> measurement)
+            throws IOException {
+        MSTResult result = measurement.getResult();
+        out.writeUTF(result.getAlgorithm());
+        out.writeBoolean(result.hasCostOverflow());
+        out.writeLong(result.hasCostOverflow() ? 0 : result.getTotalCost());
+        out.writeDouble(result.getTotalWeight());
+        writeInts(out, result.getEdgeIds());
+        out.writeInt(result.getComponentCount());
+        writeInts(out, result.getComponentIds());
+        MSTMetrics.Counter[] counters = MSTMetrics.Counter.values();
+        out.writeInt(counters.length);
+        for (MSTMetrics.Counter counter : counters) {
+            out.writeLong(result.getCounter(counter));
+        }
+        MSTMetrics.Phase[] phases = MSTMetrics.Phase.values();
+        out.writeInt(phases.length);
+        for (MSTMetrics.Phase phase : phases) {
+            out.writeLong(result.getPhaseNanos(phase));
+        }
+        writeInts(out, result.getComponentsPerPhase());
+        writeInts(out, result.getEdgesPerPhase());
+
+        double[] timesMs = measurement.getSortedTimesMs();
+        out.writeInt(timesMs.length);
+        for (double time : timesMs) {
+            out.writeDouble(time);
+        }
+        out.writeLong(measurement.getAllocatedBytesPerRun());
+        out.writeLong(measurement.getGcTimeMs());
+    }
+
+    private static TimingHarness.Measurement<MSTResult> readMeasurement(DataInputStream in, Graph graph)
+            throws IOException {
+        int vertices = graph.getVertices();
+        String algorithm = in.readUTF();
+        boolean costOverflow = in.readBoolean();
+        long totalCost = in.readLong();
+        double totalWeight = in.readDouble();
+        int[] edgeIds = readInts(in, vertices);
+        for (int edge : edgeIds) {
+            if (edge < 0 || edge >= graph.getEdgeCount()) {
+                throw new IOException("edge id " + edge + " out of range");
+            }
+        }
+        int componentCount = in.readInt();
+        int[] componentIds = readInts(in, vertices);
+        long[] counters = readLongs(in, MSTMetrics.Counter.values().length);
+        long[] phaseNanos = readLongs(in, MSTMetrics.Phase.values().length);
+        int[] componentsPerPhase = readInts(in, vertices);
+        int[] edgesPerPhase = readInts(in, vertices);
+        MSTResult result = new MSTResult(algorithm, null, edgeIds, totalCost, costOverflow, totalWeight, componentIds,
+                componentCount, counters, phaseNanos, componentsPerPhase, edgesPerPhase);
+
+        int runs = in.readInt();
+        if (runs < 1 || runs > 1 << 20) {
+            throw new IOException("bad run count " + runs);
+        }
+        double[] timesMs = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            timesMs[i] = in.readDouble();
+        }
+        return TimingHarness.restore(result, timesMs, in.readLong(), in.readLong());
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int maxLength) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > maxLength) {
+            throw new IOException("bad array length " + length);
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    // counter and phase sets written by another version do not match the enums
+    private static long[] readLongs(DataInputStream in, int expectedLength) throws IOException {
+        int length = in.readInt();
+        if (length != expectedLength) {
+            throw new IOException("expected " + expectedLength + " values, got " + length);
+        }
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    public static final class Entry {
+        private final TimingHarness.Measurement<MSTResult> prim;
+        private final TimingHarness.Measurement<MSTResult> kruskal;
+        private final TimingHarness.Measurement<MSTResult> boruvka;
+        private final long createdMillis;
+        private final long bytes; // estimated heap footprint, for the memory budget
+
+        private Entry(TimingHarness.Measurement<MSTResult> prim, TimingHarness.Measurement<MSTResult> kruskal,
+                      TimingHarness.Measurement<MSTResult> boruvka, long createdMillis) {
+            this(prim, kruskal, boruvka, createdMillis,
+                    estimateBytes(prim) + estimateBytes(kruskal) + estimateBytes(boruvka));
+        }
+
+        private Entry(TimingHarness.Measurement<MSTResult> prim, TimingHarness.Measurement<MSTResult> kruskal,
+                      TimingHarness.Measurement<MSTResult> boruvka, long createdMillis, long bytes) {
+            this.prim = prim;
+            this.kruskal = kruskal;
+            this.boruvka = boruvka;
+            this.createdMillis = createdMillis;
+            this.bytes = bytes;
+        }
+
+        // the results are detached, so this is all an entry retains
+        private static long estimateBytes(TimingHarness.Measurement<MSTResult> measurement) {
+            MSTResult result = measurement.getResult();
+            long ints = result.getEdgeIds().length + result.getComponentIds().length
+                    + result.getComponentsPerPhase().length + result.getEdgesPerPhase().length;
+            long longs = MSTMetrics.Counter.values().length + MSTMetrics.Phase.values().length + measurement.getRuns();
+            return 4 * ints + 8 * longs + 256; // plus a few object headers
+        }
+
+        // a copy whose results build their edges from graph; the stored entry stays detached
+        private Entry attach(Graph graph) {
+            return new Entry(attach(prim, graph), attach(kruskal, graph), attach(boruvka, graph), createdMillis,
+                    bytes);
+        }
+
+        private static TimingHarness.Measurement<MSTResult> attach(TimingHarness.Measurement<MSTResult> measurement,
+                                                                   Graph graph) {
+            return TimingHarness.restore(measurement.getResult().attach(graph), measurement.getSortedTimesMs(),
+                    measurement.getAllocatedBytesPerRun(), measurement.getGcTimeMs());
+        }
+
+        public TimingHarness.Measurement<MSTResult> getPrim() { return prim; }
+        public TimingHarness.Measurement<MSTResult> getKruskal() { return kruskal; }
+        public TimingHarness.Measurement<MSTResult> getBoruvka() { return boruvka; }
+    }
+}
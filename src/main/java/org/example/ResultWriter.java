@@ -0,0 +1,261 @@
+package org.example;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+// Writes output.json and summary.csv incrementally: each graph result is flushed as soon
+// as it is produced, so nothing accumulates in memory across graphs. Results are streamed
+// field by field through JsonWriter, with no intermediate maps or reflection.
+public class ResultWriter implements Closeable {
+    private static final String CSV_HEADER = "graph_id,vertices,edges,prim_total_cost,kruskal_total_cost,cost_diff,"
+            + "prim_time_ms,kruskal_time_ms,time_diff_ms,prim_ops,kruskal_ops,ops_diff,"
+            + "boruvka_total_cost,boruvka_time_ms,boruvka_ops,"
+            + "prim_p90_ms,kruskal_p90_ms,prim_stddev_ms,kruskal_stddev_ms,time_diff_significant,faster_algorithm,"
+            + "selected_algorithm,cache_status,cache_hits,cache_misses\n";
+
+    private final JsonWriter json;
+    private final Writer csv;
+    // running totals, so the last row of summary.csv holds the run's cache hits and misses
+    private long cacheHits;
+    private long cacheMisses;
+    private boolean failed;
+
+    public ResultWriter(String jsonPath, String csvPath) throws IOException {
+        this(new BufferedWriter(new FileWriter(jsonPath)), csvPath);
+    }
+
+    private ResultWriter(Writer json, String csvPath) throws IOException {
+        this(json, openCsv(json, csvPath));
+    }
+
+    // any pair of writers, e.g. an HTTP response body and Writer.nullWriter() for the CSV
+    public ResultWriter(Writer json, Writer csv) throws IOException {
+        this.json = new JsonWriter(json);
+        this.csv = csv;
+        this.json.beginObject();
+        this.json.name("results");
+        this.json.beginArray();
+        csv.write(CSV_HEADER);
+    }
+
+    private static Writer openCsv(Writer json, String csvPath) throws IOException {
+        try {
+            return new BufferedWriter(new FileWriter(csvPath));
+        } catch (IOException e) {
+            json.close();
+            throw e;
+        }
+    }
+
+    public void write(GraphResult result) throws IOException {
+        writeJson(result);
+        writeCsv(result);
+        // a crash later in the batch still leaves every finished graph on disk
+        json.flush();
+        csv.flush();
+    }
+
+    // a single-engine result has no summary.csv row, whose columns are the three-way comparison
+    public void write(EngineResult result) throws IOException {
+        Graph graph = result.getGraph();
+        json.beginObject();
+        json.name("graph_id").value(result.getGraphId());
+        json.name("cache_status").value(result.getCacheStatus().label());
+        json.name("input_stats").beginObject();
+        json.name("vertices").value(graph.getVertices());
+        json.name("edges").value(graph.getEdgeCount());
+        json.endObject();
+        writeSelection(result.getSelection());
+        writeReport("mst", result.getReport());
+        json.endObject();
+        json.flush();
+    }
+
+    // ends the results early with an "error" field next to them; close() still completes the document
+    public void fail(String message) throws IOException {
+        json.endArray();
+        json.name("error").value(message);
+        json.flush();
+        failed = true;
+    }
+
+    private void writeJson(GraphResult result) throws IOException {
+        Graph graph = result.getGraph();
+        json.beginObject();
+        json.name("graph_id").value(result.getGraphId());
+        json.name("cache_status").value(result.getCacheStatus().label());
+        json.name("input_stats").beginObject();
+        json.name("vertices").value(graph.getVertices());
+        json.name("edges").value(graph.getEdgeCount());
+        json.endObject();
+
+        writeReport("prim", result.getPrim());
+        writeReport("kruskal", result.getKruskal());
+        writeReport("boruvka", result.getBoruvka());
+
+        AlgorithmReport prim = result.getPrim();
+        AlgorithmReport kruskal = result.getKruskal();
+        AlgorithmReport boruvka = result.getBoruvka();
+        json.name("comparison").beginObject();
+        boolean fractional = graph.getWeightType() == Graph.WeightType.DOUBLE;
+        json.name("prim_total_cost").value(cost(prim));
+        json.name("kruskal_total_cost").value(cost(kruskal));
+        json.name("cost_equal").value(result.isCostEqual());
+        json.name("cost_difference").value(fractional ? result.getWeightDifference() : result.getExactCostDifference());
+        json.name("prim_execution_time_ms").value(prim.getExecutionTimeMs());
+        json.name("kruskal_execution_time_ms").value(kruskal.getExecutionTimeMs());
+        json.name("time_difference_ms").value(result.getTimeDifferenceMs());
+        json.name("time_difference_significant").value(result.isTimeDifferenceSignificant());
+        json.name("faster_algorithm").value(result.getFasterAlgorithm());
+        json.name("prim_operations").value(prim.getOperations());
+        json.name("kruskal_operations").value(kruskal.getOperations());
+        json.name("operations_difference").value(result.getOperationsDifference());
+        json.name("boruvka_total_cost").value(cost(boruvka));
+        json.name("boruvka_execution_time_ms").value(boruvka.getExecutionTimeMs());
+        json.name("boruvka_operations").value(boruvka.getOperations());
+        json.endObject();
+
+        writeSelection(result.getSelection());
+        json.endObject();
+    }
+
+    private void writeSelection(AdaptiveSolver.Selection selection) throws IOException {
+        json.name("solver_selection").beginObject();
+        json.name("algorithm").value(selection.getEngine().getName());
+        json.name("reason").value(selection.getReason());
+        json.endObject();
+    }
+
+    private void writeReport(String name, AlgorithmReport report) throws IOException {
+        json.name(name).beginObject();
+        // MST edges go straight from the result arrays to the stream
+        List<String> nodeNames = report.getGraph().getNodeNames();
+        boolean fractional = report.getGraph().getWeightType() == Graph.WeightType.DOUBLE;
+        json.name("mst_edges").beginArray();
+        for (int i = 0, count = report.getMstEdgeCount(); i < count; i++) {
+            json.beginObject();
+            json.name("from").value(vertexLabel(nodeNames, report.getMstSource(i)));
+            json.name("to").value(vertexLabel(nodeNames, report.getMstDestination(i)));
+            if (fractional) {
+                json.name("weight").value(report.getMstDoubleWeight(i));
+            } else {
+                json.name("weight").value(report.getMstWeight(i));
+            }
+            json.endObject();
+        }
+        json.endArray();
+        json.name("total_cost").value(cost(report));
+        json.name("connected").value(report.getResult().isConnected());
+        json.name("components").value(report.getResult().getComponentCount());
+        json.name("operations_count").value(report.getOperations());
+        json.name("execution_time_ms").value(report.getExecutionTimeMs());
+
+        TimingHarness.Measurement<?> timing = report.getTiming();
+        json.name("timing").beginObject();
+        json.name("runs").value(timing.getRuns());
+        json.name("min_ms").value(timing.getMinMs());
+        json.name("median_ms").value(timing.getMedianMs());
+        json.name("p90_ms").value(timing.getP90Ms());
+        json.name("mean_ms").value(timing.getMeanMs());
+        json.name("stddev_ms").value(timing.getStddevMs());
+        json.name("allocated_bytes_per_run").value(timing.getAllocatedBytesPerRun());
+        json.name("gc_time_ms").value(timing.getGcTimeMs());
+        json.endObject();
+
+        // only the phases this algorithm went through
+        json.name("phase_times_ms").beginObject();
+        for (MSTMetrics.Phase phase : MSTMetrics.Phase.values()) {
+            long nanos = report.getResult().getPhaseNanos(phase);
+            if (nanos > 0) {
+                json.name(phase.name().toLowerCase(Locale.ROOT)).value(nanos / 1_000_000.0);
+            }
+        }
+        json.endObject();
+
+        for (int i = 0; i < report.getCounterCount(); i++) {
+            json.name(report.getCounterName(i)).value(report.getCounterValue(i));
+        }
+        for (int i = 0; i < report.getSeriesCount(); i++) {
+            json.name(report.getSeriesName(i)).beginArray();
+            for (int value : report.getSeriesValues(i)) {
+                json.value(value);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    // integral for INT and LONG graphs, fractional for DOUBLE graphs; a LONG total past the long
+    // range is written in full
+    private static Number cost(AlgorithmReport report) {
+        if (report.getGraph().getWeightType() == Graph.WeightType.DOUBLE) {
+            return report.getTotalWeight();
+        }
+        return report.hasCostOverflow() ? report.getExactTotalCost() : report.getTotalCost();
+    }
+
+    private static String vertexLabel(List<String> nodeNames, int vertex) {
+        if (nodeNames != null && vertex >= 0 && vertex < nodeNames.size()) {
+            return nodeNames.get(vertex);
+        }
+        return String.valueOf(vertex);
+    }
+
+    private void writeCsv(GraphResult result) throws IOException {
+        Graph graph = result.getGraph();
+        AlgorithmReport prim = result.getPrim();
+        AlgorithmReport kruskal = result.getKruskal();
+        AlgorithmReport boruvka = result.getBoruvka();
+        csv.append(String.valueOf(result.getGraphId())).append(',');
+        csv.append(String.valueOf(graph.getVertices())).append(',');
+        csv.append(String.valueOf(graph.getEdgeCount())).append(',');
+        csv.append(String.valueOf(cost(prim))).append(',');
+        csv.append(String.valueOf(cost(kruskal))).append(',');
+        csv.append(String.valueOf(graph.getWeightType() == Graph.WeightType.DOUBLE
+                ? result.getWeightDifference() : result.getExactCostDifference())).append(',');
+        csv.append(String.valueOf(prim.getExecutionTimeMs())).append(',');
+        csv.append(String.valueOf(kruskal.getExecutionTimeMs())).append(',');
+        csv.append(String.valueOf(result.getTimeDifferenceMs())).append(',');
+        csv.append(String.valueOf(prim.getOperations())).append(',');
+        csv.append(String.valueOf(kruskal.getOperations())).append(',');
+        csv.append(String.valueOf(result.getOperationsDifference())).append(',');
+        csv.append(String.valueOf(cost(boruvka))).append(',');
+        csv.append(String.valueOf(boruvka.getExecutionTimeMs())).append(',');
+        csv.append(String.valueOf(boruvka.getOperations())).append(',');
+        csv.append(String.valueOf(prim.getTiming().getP90Ms())).append(',');
+        csv.append(String.valueOf(kruskal.getTiming().getP90Ms())).append(',');
+        csv.append(String.valueOf(prim.getTiming().getStddevMs())).append(',');
+        csv.append(String.valueOf(kruskal.getTiming().getStddevMs())).append(',');
+        csv.append(String.valueOf(result.isTimeDifferenceSignificant())).append(',');
+        csv.append(result.getFasterAlgorithm()).append(',');
+        csv.append(result.getSelection().getEngine().getName()).append(',');
+        if (result.getCacheStatus() == ResultCache.Status.HIT) {
+            cacheHits++;
+        } else if (result.getCacheStatus() == ResultCache.Status.MISS) {
+            cacheMisses++;
+        }
+        csv.append(result.getCacheStatus().label()).append(',');
+        csv.append(String.valueOf(cacheHits)).append(',');
+        csv.append(String.valueOf(cacheMisses)).append('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!failed) {
+                json.endArray();
+            }
+            json.endObject();
+        } finally {
+            json.close();
+            csv.close();
+        }
+    }
+}
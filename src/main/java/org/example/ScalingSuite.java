@@ -0,0 +1,157 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+// Runs Prim, Kruskal and Borůvka on generated graphs of every topology at 10x edge steps and
+// records time, allocation and operation curves. Each point's exponent is the log-log slope
+// against the previous size of the same topology and algorithm: near 1 for E log E work, near
+// 2 for an O(V·E) regression. Operation counts are deterministic, so their exponent is the
+// one to gate on; time is kept for the curve. Any cost disagreement fails the run.
+public class ScalingSuite {
+    public static final double REGRESSION_EXPONENT = 1.5;
+
+    static final String USAGE = "Usage: ScalingSuite [--min-edges=N] [--max-edges=N] [--degree=N] [--seed=N]"
+            + " [--warmup=N] [--repeat=N] [--csv=PATH]";
+    private static final String CSV_HEADER = "topology,vertices,edges,algorithm,total_cost,median_ms,"
+            + "allocated_bytes_per_run,operations,time_exponent,operations_exponent\n";
+
+    public record Point(GraphGenerator.Topology topology, int vertices, int edges, String algorithm, long totalCost,
+                        double medianMs, long allocatedBytesPerRun, long operations, double timeExponent,
+                        double operationsExponent) {
+
+        // NaN exponents (the first size of a series) never count as a regression
+        public boolean isRegression() {
+            return operationsExponent > REGRESSION_EXPONENT;
+        }
+    }
+
+    public static void main(String[] args) {
+        int minEdges = 1_000;
+        int maxEdges = 1_000_000;
+        int degree = 8;
+        int seed = 42;
+        int warmup = 1;
+        int repeat = 3;
+        String csvPath = "data/scaling.csv";
+        try {
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                String key = eq < 0 ? arg : arg.substring(0, eq);
+                String value = eq < 0 ? null : arg.substring(eq + 1);
+                switch (key) {
+                    case "--min-edges" -> minEdges = Main.Options.positive(key, value);
+                    case "--max-edges" -> maxEdges = Main.Options.positive(key, value);
+                    case "--degree" -> degree = Main.Options.positive(key, value);
+                    case "--seed" -> seed = Main.Options.integer(key, value);
+                    case "--warmup" -> warmup = Main.Options.nonNegative(key, value);
+                    case "--repeat" -> repeat = Main.Options.positive(key, value);
+                    case "--csv" -> csvPath = Main.Options.require(key, value);
+                    default -> throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+
+        List<Point> points;
+        try (Writer csv = new BufferedWriter(new FileWriter(csvPath))) {
+            csv.write(CSV_HEADER);
+            points = run(List.of(GraphGenerator.Topology.values()), minEdges, maxEdges, degree, seed,
+                    new TimingHarness(warmup, repeat), point -> {
+                        System.out.println(format(point));
+                        try {
+                            csv.write(csvRow(point));
+                            csv.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Failed to write " + csvPath + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        } catch (IllegalStateException e) {
+            // the engines disagree on an MST cost, which is a correctness failure, not a timing one
+            System.out.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.out.println("Scaling curves written to " + csvPath);
+        long regressions = points.stream().filter(Point::isRegression).count();
+        if (regressions > 0) {
+            System.out.println(regressions + " point(s) grew faster than E^" + REGRESSION_EXPONENT);
+            System.exit(1);
+        }
+    }
+
+    // sizes go minEdges, 10·minEdges, ... up to maxEdges; every graph has uniform small weights
+    public static List<Point> run(List<GraphGenerator.Topology> topologies, long minEdges, long maxEdges, int degree,
+                                  long seed, TimingHarness harness, Consumer<Point> listener) {
+        List<Point> points = new ArrayList<>();
+        for (GraphGenerator.Topology topology : topologies) {
+            Point[] previous = new Point[3];
+            for (long edges = minEdges; edges <= maxEdges; edges *= 10) {
+                int vertices = GraphGenerator.verticesFor(topology, edges, degree);
+                Graph graph = GraphGenerator.generate(topology, vertices, degree,
+                        GraphGenerator.Weights.UNIFORM_SMALL, seed);
+                TimingHarness.Measurement<MSTResult> prim = harness.measure(() -> PrimAlgorithm.findMST(graph));
+                TimingHarness.Measurement<MSTResult> kruskal = harness.measure(() -> KruskalAlgorithm.findMST(graph));
+                TimingHarness.Measurement<MSTResult> boruvka = harness.measure(() -> BoruvkaAlgorithm.findMST(graph));
+                long cost = kruskal.getResult().getTotalCost();
+                if (prim.getResult().getTotalCost() != cost || boruvka.getResult().getTotalCost() != cost) {
+                    throw new IllegalStateException(String.format(Locale.ROOT,
+                            "MST costs disagree on %s with %d vertices and %d edges: prim=%d kruskal=%d boruvka=%d",
+                            topology, vertices, graph.getEdgeCount(), prim.getResult().getTotalCost(), cost,
+                            boruvka.getResult().getTotalCost()));
+                }
+                List<TimingHarness.Measurement<MSTResult>> measurements = List.of(prim, kruskal, boruvka);
+                for (int a = 0; a < measurements.size(); a++) {
+                    Point point = point(topology, graph, measurements.get(a), previous[a]);
+                    previous[a] = point;
+                    points.add(point);
+                    listener.accept(point);
+                }
+            }
+        }
+        return points;
+    }
+
+    private static Point point(GraphGenerator.Topology topology, Graph graph,
+                               TimingHarness.Measurement<MSTResult> measurement, Point previous) {
+        MSTResult result = measurement.getResult();
+        double timeExponent = Double.NaN;
+        double operationsExponent = Double.NaN;
+        if (previous != null) {
+            double growth = Math.log((double) graph.getEdgeCount() / previous.edges());
+            timeExponent = Math.log(measurement.getMedianMs() / previous.medianMs()) / growth;
+            operationsExponent = Math.log((double) result.getOperations() / previous.operations()) / growth;
+        }
+        return new Point(topology, graph.getVertices(), graph.getEdgeCount(), result.getAlgorithm(),
+                result.getTotalCost(), measurement.getMedianMs(), measurement.getAllocatedBytesPerRun(),
+                result.getOperations(), timeExponent, operationsExponent);
+    }
+
+    static String format(Point point) {
+        return String.format(Locale.ROOT, "%-12s V=%-10d E=%-10d %-8s %10.3f ms %12d B %12d ops  exp(time)=%5.2f exp(ops)=%5.2f%s",
+                point.topology(), point.vertices(), point.edges(), point.algorithm(), point.medianMs(),
+                point.allocatedBytesPerRun(), point.operations(), point.timeExponent(), point.operationsExponent(),
+                point.isRegression() ? "  REGRESSION" : "");
+    }
+
+    static String csvRow(Point point) {
+        return String.format(Locale.ROOT, "%s,%d,%d,%s,%d,%.3f,%d,%d,%.3f,%.3f%n", point.topology(), point.vertices(),
+                point.edges(), point.algorithm(), point.totalCost(), point.medianMs(), point.allocatedBytesPerRun(),
+                point.operations(), point.timeExponent(), point.operationsExponent());
+    }
+}
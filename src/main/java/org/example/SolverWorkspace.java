@@ -0,0 +1,195 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Scratch buffers of PrimAlgorithm and KruskalAlgorithm (visited flags, vertex queues,
+// union-find arrays, edge orders and radix sort buffers), kept and grown across solves. With
+// a workspace, a solve allocates only what its MSTResult keeps: the MST edge ids, a fresh
+// component id array and a few small objects, plus an MSTSolveEvent while JFR records one.
+// Buffers never shrink. A workspace serves one solve at a time; POOL lends them to concurrent
+// tasks.
+public final class SolverWorkspace {
+    public static final Pool POOL = new Pool(2 * Runtime.getRuntime().availableProcessors(), 64L << 20);
+
+    private boolean[] visited = new boolean[0];
+    private int[] vertexEdges = new int[0]; // Prim's best edge per vertex
+    private int[] treeEdges = new int[0];   // MST edge ids before they are copied into the result
+    private int[] edgeOrder = new int[0];
+    private int[] sortKeys = new int[0];
+    private int[] sortIds = new int[0];
+    private int[] sortKeyScratch = new int[0];
+    private int[] sortIdScratch = new int[0];
+    private final int[][] sortCounts = new int[EdgeSort.PASSES][EdgeSort.BUCKETS];
+    private DisjointSet sets;
+    private IndexedMinHeap heap;
+    private BucketQueue buckets;
+    private PairingHeap pairing;
+
+    // grows by at least half, so slowly growing inputs do not reallocate on every solve
+    private static int grow(int current, int size) {
+        return Math.max(size, (int) Math.min(Integer.MAX_VALUE - 8, current + (long) current / 2));
+    }
+
+    // all false
+    boolean[] visited(int size) {
+        if (visited.length < size) {
+            visited = new boolean[grow(visited.length, size)];
+        } else {
+            Arrays.fill(visited, 0, size, false);
+        }
+        return visited;
+    }
+
+    int[] vertexEdges(int size) {
+        if (vertexEdges.length < size) {
+            vertexEdges = new int[grow(vertexEdges.length, size)];
+        }
+        return vertexEdges;
+    }
+
+    int[] treeEdges(int size) {
+        if (treeEdges.length < size) {
+            treeEdges = new int[grow(treeEdges.length, size)];
+        }
+        return treeEdges;
+    }
+
+    // 0, 1, ..., size - 1
+    int[] edgeOrder(int size) {
+        if (edgeOrder.length < size) {
+            edgeOrder = new int[grow(edgeOrder.length, size)];
+        }
+        for (int e = 0; e < size; e++) {
+            edgeOrder[e] = e;
+        }
+        return edgeOrder;
+    }
+
+    int[] sortKeys(int size) {
+        if (sortKeys.length < size) {
+            sortKeys = new int[grow(sortKeys.length, size)];
+        }
+        return sortKeys;
+    }
+
+    int[] sortIds(int size) {
+        if (sortIds.length < size) {
+            sortIds = new int[grow(sortIds.length, size)];
+        }
+        return sortIds;
+    }
+
+    int[] sortKeyScratch(int size) {
+        if (sortKeyScratch.length < size) {
+            sortKeyScratch = new int[grow(sortKeyScratch.length, size)];
+        }
+        return sortKeyScratch;
+    }
+
+    int[] sortIdScratch(int size) {
+        if (sortIdScratch.length < size) {
+            sortIdScratch = new int[grow(sortIdScratch.length, size)];
+        }
+        return sortIdScratch;
+    }
+
+    // zeroed
+    int[][] sortCounts() {
+        for (int[] count : sortCounts) {
+            Arrays.fill(count, 0);
+        }
+        return sortCounts;
+    }
+
+    DisjointSet disjointSet(int size) {
+        if (sets == null) {
+            sets = new DisjointSet(size);
+        } else {
+            sets.reset(size);
+        }
+        return sets;
+    }
+
+    // the queues are empty after every complete Prim run; clear() covers a run that threw
+    IndexedMinHeap heap(int capacity) {
+        if (heap == null || heap.capacity() < capacity) {
+            heap = new IndexedMinHeap(grow(heap == null ? 0 : heap.capacity(), capacity));
+        }
+        heap.clear();
+        return heap;
+    }
+
+    BucketQueue buckets(int capacity, int minKey, int maxKey) {
+        if (buckets == null || buckets.capacity() < capacity) {
+            buckets = new BucketQueue(grow(buckets == null ? 0 : buckets.capacity(), capacity), minKey, maxKey);
+        } else {
+            buckets.clear();
+            buckets.reset(minKey, maxKey);
+        }
+        return buckets;
+    }
+
+    PairingHeap pairing(int capacity) {
+        if (pairing == null || pairing.capacity() < capacity) {
+            pairing = new PairingHeap(grow(pairing == null ? 0 : pairing.capacity(), capacity));
+        }
+        pairing.clear();
+        return pairing;
+    }
+
+    // rough heap footprint of the buffers, which the pool uses to drop oversized workspaces
+    public long retainedBytes() {
+        long bytes = visited.length + 4L * (vertexEdges.length + treeEdges.length + edgeOrder.length + sortKeys.length
+                + sortIds.length + sortKeyScratch.length + sortIdScratch.length);
+        if (sets != null) {
+            bytes += 5L * sets.capacity();
+        }
+        if (heap != null) {
+            bytes += 12L * heap.capacity();
+        }
+        if (buckets != null) {
+            bytes += 13L * buckets.capacity() + 4L * buckets.range();
+        }
+        if (pairing != null) {
+            bytes += 21L * pairing.capacity();
+        }
+        return bytes;
+    }
+
+    // Lends workspaces to tasks on any thread, virtual ones included: acquire() before a solve,
+    // release() after it. Keeps at most maxIdle idle workspaces of up to maxRetainedBytes
+    // each, so one huge graph does not pin its buffers for the rest of the run.
+    public static final class Pool {
+        private final ConcurrentLinkedQueue<SolverWorkspace> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final int maxIdle;
+        private final long maxRetainedBytes;
+
+        public Pool(int maxIdle, long maxRetainedBytes) {
+            this.maxIdle = maxIdle;
+            this.maxRetainedBytes = maxRetainedBytes;
+        }
+
+        public SolverWorkspace acquire() {
+            SolverWorkspace workspace = idle.poll();
+            if (workspace == null) {
+                return new SolverWorkspace();
+            }
+            idleCount.decrementAndGet();
+            return workspace;
+        }
+
+        public void release(SolverWorkspace workspace) {
+            if (workspace.retainedBytes() > maxRetainedBytes) {
+                return;
+            }
+            if (idleCount.incrementAndGet() > maxIdle) {
+                idleCount.decrementAndGet();
+                return;
+            }
+            idle.offer(workspace);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Minimum spanning forest of a possibly disconnected graph. One unsorted union-find pass labels
+// the connected components first, which gives Kruskal its real target of V - components edges,
+// so it stops early instead of scanning every edge. With many components and enough edges,
+// each component becomes its own small graph and the components are solved in parallel.
+public class SpanningForest implements MSTSolver {
+    static final int PARALLEL_MIN_COMPONENTS = 64;
+    static final int PARALLEL_MIN_EDGES = 1 << 16;
+
+    private final ForkJoinPool pool;
+
+    public SpanningForest() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SpanningForest(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "forest";
+    }
+
+    @Override
+    public MSTResult solve(Graph graph, MSTMetrics metrics) {
+        return findForest(graph, pool, metrics);
+    }
+
+    public static MSTResult findForest(Graph graph) {
+        return findForest(graph, ForkJoinPool.commonPool(), new CountingMetrics());
+    }
+
+    public static MSTResult findForest(Graph graph, ForkJoinPool pool, MSTMetrics metrics) {
+        int vertices = graph.getVertices();
+        int edgeCount = graph.getEdgeCount();
+        if (vertices == 0 || edgeCount == 0) {
+            return MSTResult.empty("forest", vertices, metrics);
+        }
+
+        long phase = metrics.phaseStart();
+        int[] componentIds = new int[vertices];
+        int components = labelComponents(graph, pool, componentIds);
+        metrics.phaseEnd(MSTMetrics.Phase.COMPONENTS, phase);
+
+        if (components < PARALLEL_MIN_COMPONENTS || edgeCount < PARALLEL_MIN_EDGES) {
+            return KruskalAlgorithm.findMST(graph, metrics, components);
+        }
+        MSTSolveEvent event = MSTSolveEvent.start();
+        return MSTSolveEvent.finish(event, graph, solveComponents(graph, pool, metrics, componentIds, components));
+    }
+
+    // large graphs union their edges in parallel; the labels are the same either way
+    private static int labelComponents(Graph graph, ForkJoinPool pool, int[] componentIds) {
+        if (graph.getEdgeCount() >= PARALLEL_MIN_EDGES) {
+            ConcurrentDisjointSet sets = new ConcurrentDisjointSet(graph.getVertices());
+            sets.unionAll(graph, pool);
+            return sets.labelComponents(componentIds);
+        }
+        DisjointSet sets = new DisjointSet(graph.getVertices());
+        sets.unionAll(graph);
+        return sets.labelComponents(componentIds);
+    }
+
+    private static MSTResult solveComponents(Graph graph, ForkJoinPool pool, MSTMetrics metrics, int[] componentIds,
+                                             int components) {
+        int vertices = graph.getVertices();
+        int edgeCount = graph.getEdgeCount();
+
+        long phase = metrics.phaseStart();
+        // local vertex ids are ranks within the component; edges are bucketed by component
+        int[] localIds = new int[vertices];
+        int[] vertexCounts = new int[components];
+        for (int v = 0; v < vertices; v++) {
+            localIds[v] = vertexCounts[componentIds[v]]++;
+        }
+        int[] edgeOffsets = new int[components + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            edgeOffsets[componentIds[graph.getSource(e)] + 1]++;
+        }
+        for (int c = 0; c < components; c++) {
+            edgeOffsets[c + 1] += edgeOffsets[c];
+        }
+        int[] bucketedEdges = new int[edgeCount];
+        int[] cursor = new int[components];
+        System.arraycopy(edgeOffsets, 0, cursor, 0, components);
+        for (int e = 0; e < edgeCount; e++) {
+            bucketedEdges[cursor[componentIds[graph.getSource(e)]]++] = e;
+        }
+        metrics.phaseEnd(MSTMetrics.Phase.COMPONENTS, phase);
+
+        // every component gets its own metrics, since CountingMetrics is not thread-safe
+        phase = metrics.phaseStart();
+        MSTResult[] trees = new MSTResult[components];
+        pool.submit(() -> IntStream.range(0, components).parallel().forEach(c -> {
+            if (vertexCounts[c] < 2) {
+                return;
+            }
+            Graph.Builder component = Graph.builder(vertexCounts[c]).expectedEdges(edgeOffsets[c + 1] - edgeOffsets[c]);
+            for (int i = edgeOffsets[c]; i < edgeOffsets[c + 1]; i++) {
+                int edge = bucketedEdges[i];
+                component.addEdge(localIds[graph.getSource(edge)], localIds[graph.getDestination(edge)],
+                        graph.getWeight(edge));
+            }
+            MSTMetrics local = metrics == MSTMetrics.NONE ? MSTMetrics.NONE : new CountingMetrics();
+            trees[c] = KruskalAlgorithm.findMST(component.build(), local, 1);
+        })).join();
+        metrics.phaseEnd(MSTMetrics.Phase.SUBTREES, phase);
+
+        List<Edge> mstEdges = new ArrayList<>(vertices - components);
+        int[] mstEdgeIds = new int[vertices - components];
+        for (int c = 0; c < components; c++) {
+            MSTResult tree = trees[c];
+            if (tree == null) {
+                continue;
+            }
+            for (int localEdge : tree.getEdgeIds()) {
+                int edge = bucketedEdges[edgeOffsets[c] + localEdge];
+                mstEdgeIds[mstEdges.size()] = edge;
+                mstEdges.add(graph.getEdge(edge));
+            }
+            for (MSTMetrics.Counter counter : MSTMetrics.Counter.values()) {
+                metrics.add(counter, tree.getCounter(counter));
+            }
+        }
+        return new MSTResult("forest", graph, mstEdges, mstEdgeIds, componentIds, components, metrics);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example;
+
+import java.util.Arrays;
+
+// Interns node names to dense int ids. The index is an open-addressing table of plain ints
+// (linear probing, id + 1 per slot, 0 for empty) next to each symbol's cached hash, so a lookup
+// boxes nothing and runs String.equals only on a hash match. One table can be shared by all
+// graphs of a batch, which then store each distinct name once. Not thread-safe.
+public class SymbolTable {
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] symbols; // id -> name
+    private int[] hashes;     // id -> spread hash
+    private int[] slots;      // open-addressing index, power-of-two length, at most half full
+    private int size;
+
+    public SymbolTable() {
+        this(MIN_CAPACITY);
+    }
+
+    public SymbolTable(int expectedSymbols) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSymbols);
+        symbols = new String[capacity];
+        hashes = new int[capacity];
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String nameOf(int id) {
+        return symbols[id];
+    }
+
+    // id of name, or -1 when it was never interned
+    public int indexOf(String name) {
+        int hash = spread(name.hashCode());
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && symbols[id].equals(name)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    // id of name, adding it when new
+    public int intern(String name) {
+        int hash = spread(name.hashCode());
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && symbols[id].equals(name)) {
+                return id;
+            }
+        }
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        symbols[id] = name;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+        slots = table;
+    }
+
+    // String.hashCode is weak in the low bits for short similar names; mix before masking
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
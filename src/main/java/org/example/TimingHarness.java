@@ -0,0 +1,148 @@
+package org.example;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Warmed, repeated timing of one task: runs it warmupIterations times untimed, then
+// repetitions times timed, and summarises the measured runs. Allocation is read from the
+// calling thread's allocation counter, so work a task hands to other threads (Borůvka's
+// fork-join leaves) is not included. GC time is JVM-wide across the measured runs.
+public class TimingHarness {
+    public static final TimingHarness SINGLE_RUN = new TimingHarness(0, 1);
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private final int warmupIterations;
+    private final int repetitions;
+
+    public TimingHarness(int warmupIterations, int repetitions) {
+        if (warmupIterations < 0 || repetitions < 1) {
+            throw new IllegalArgumentException("Need warmupIterations >= 0 and repetitions >= 1, got "
+                    + warmupIterations + " and " + repetitions);
+        }
+        this.warmupIterations = warmupIterations;
+        this.repetitions = repetitions;
+    }
+
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public <T> Measurement<T> measure(Supplier<T> task) {
+        for (int i = 0; i < warmupIterations; i++) {
+            task.get();
+        }
+
+        double[] timesMs = new double[repetitions];
+        long allocatedBytes = 0;
+        long gcBefore = totalGcTimeMs();
+        T result = null;
+        for (int i = 0; i < repetitions; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            result = task.get();
+            long end = System.nanoTime();
+            allocatedBytes += allocatedBytes() - allocatedBefore;
+            timesMs[i] = (end - start) / 1_000_000.0;
+        }
+        long gcTimeMs = totalGcTimeMs() - gcBefore;
+        return new Measurement<>(result, timesMs, allocatedBytes / repetitions, gcTimeMs);
+    }
+
+    // rebuilds a measurement from stored run times, e.g. for a cached result
+    static <T> Measurement<T> restore(T result, double[] timesMs, long allocatedBytesPerRun, long gcTimeMs) {
+        return new Measurement<>(result, timesMs, allocatedBytesPerRun, gcTimeMs);
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static long totalGcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : COLLECTORS) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null; // allocation is reported as 0 on JVMs without the counter
+    }
+
+    public static final class Measurement<T> {
+        private final T result; // the value returned by the last measured run
+        private final double[] sortedTimesMs;
+        private final long allocatedBytesPerRun;
+        private final long gcTimeMs;
+        private final double mean;
+        private final double stddev;
+
+        private Measurement(T result, double[] timesMs, long allocatedBytesPerRun, long gcTimeMs) {
+            this.result = result;
+            this.sortedTimesMs = timesMs.clone();
+            Arrays.sort(sortedTimesMs);
+            this.allocatedBytesPerRun = allocatedBytesPerRun;
+            this.gcTimeMs = gcTimeMs;
+
+            double sum = 0;
+            for (double t : timesMs) {
+                sum += t;
+            }
+            this.mean = sum / timesMs.length;
+            double squares = 0;
+            for (double t : timesMs) {
+                squares += (t - mean) * (t - mean);
+            }
+            // sample standard deviation; a single run has none
+            this.stddev = timesMs.length > 1 ? Math.sqrt(squares / (timesMs.length - 1)) : 0;
+        }
+
+        public T getResult() { return result; }
+        double[] getSortedTimesMs() { return sortedTimesMs.clone(); }
+        public int getRuns() { return sortedTimesMs.length; }
+        public double getMinMs() { return sortedTimesMs[0]; }
+        public double getMedianMs() { return percentile(50); }
+        public double getP90Ms() { return percentile(90); }
+        public double getMeanMs() { return mean; }
+        public double getStddevMs() { return stddev; }
+        public long getAllocatedBytesPerRun() { return allocatedBytesPerRun; }
+        public long getGcTimeMs() { return gcTimeMs; }
+
+        // linear interpolation between closest ranks
+        public double percentile(double p) {
+            double rank = p / 100.0 * (sortedTimesMs.length - 1);
+            int low = (int) Math.floor(rank);
+            int high = (int) Math.ceil(rank);
+            return sortedTimesMs[low] + (rank - low) * (sortedTimesMs[high] - sortedTimesMs[low]);
+        }
+
+        public boolean differsSignificantlyFrom(Measurement<?> other) {
+            return significantlyDifferent(getMedianMs(), stddev, getRuns(), other.getMedianMs(), other.stddev, other.getRuns());
+        }
+    }
+
+    // true when the median gap exceeds two standard errors of the difference (Welch-style);
+    // with a single run on either side there is no spread to judge, so any gap counts
+    public static boolean significantlyDifferent(double medianA, double stddevA, int runsA,
+                                                 double medianB, double stddevB, int runsB) {
+        if (runsA < 2 || runsB < 2) {
+            return medianA != medianB;
+        }
+        double standardError = Math.sqrt(stddevA * stddevA / runsA + stddevB * stddevB / runsB);
+        return Math.abs(medianA - medianB) > 2 * standardError;
+    }
+}
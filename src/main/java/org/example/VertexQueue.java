@@ -0,0 +1,21 @@
+package org.example;
+
+// Min-priority queue over vertex ids 0..capacity-1 with int keys and at most one entry per
+// vertex, so Prim lowers a key in place instead of pushing stale duplicates.
+interface VertexQueue {
+    boolean isEmpty();
+
+    boolean contains(int vertex);
+
+    int keyOf(int vertex);
+
+    void insert(int vertex, int key);
+
+    // caller guarantees key < keyOf(vertex)
+    void decreaseKey(int vertex, int key);
+
+    int extractMin();
+
+    // removes every vertex
+    void clear();
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DynamicMSTTest {
+
+    // recomputes the forest cost from scratch over the edges that are still alive
+    private long recomputedCost(DynamicMST dynamic, List<int[]> edges) {
+        Graph g = new Graph(dynamic.getVertices());
+        for (int e = 0; e < edges.size(); e++) {
+            if (!dynamic.isDeleted(e)) {
+                int[] edge = edges.get(e);
+                g.addEdge(edge[0], edge[1], dynamic.getWeight(e));
+            }
+        }
+        return KruskalAlgorithm.findMST(g).getTotalCost();
+    }
+
+    @Test
+    public void testUpdatesMatchFullRecomputation() {
+        Random random = new Random(5);
+        int v = 40;
+        Graph.Builder builder = Graph.builder(v);
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < 90; i++) {
+            int a = random.nextInt(v);
+            int b = random.nextInt(v);
+            builder.addEdge(a, b, random.nextInt(100));
+            edges.add(new int[] {a, b});
+        }
+        Graph graph = builder.build();
+        DynamicMST dynamic = DynamicMST.of(graph, KruskalAlgorithm.findMST(graph));
+        assertEquals(KruskalAlgorithm.findMST(graph).getTotalCost(), dynamic.getTotalCost());
+
+        for (int step = 0; step < 2_000; step++) {
+            int op = random.nextInt(4);
+            int e = random.nextInt(edges.size());
+            if (op == 0) {
+                int a = random.nextInt(v);
+                int b = random.nextInt(v);
+                assertEquals(edges.size(), dynamic.insertEdge(a, b, random.nextInt(100)));
+                edges.add(new int[] {a, b});
+            } else if (dynamic.isDeleted(e)) {
+                continue;
+            } else if (op == 1) {
+                dynamic.deleteEdge(e);
+            } else {
+                dynamic.updateWeight(e, random.nextInt(100));
+            }
+            assertEquals(recomputedCost(dynamic, edges), dynamic.getTotalCost(), "Step " + step + " (op " + op + ")");
+        }
+
+        List<Edge> tree = dynamic.getTreeEdges();
+        assertEquals(dynamic.getTreeEdgeCount(), tree.size());
+        long sum = 0;
+        for (Edge edge : tree) sum += edge.getWeight();
+        assertEquals(dynamic.getTotalCost(), sum);
+    }
+
+    @Test
+    public void testDeletingABridgeSplitsTheForest() {
+        Graph graph = Graph.builder(4).addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(2, 3, 1).build();
+        DynamicMST dynamic = DynamicMST.of(graph, PrimAlgorithm.findMST(graph));
+        dynamic.deleteEdge(1);
+        assertFalse(dynamic.connected(0, 3));
+        assertEquals(2, dynamic.getTreeEdgeCount());
+
+        int bridge = dynamic.insertEdge(3, 0, 9);
+        assertTrue(dynamic.isTreeEdge(bridge));
+        assertEquals(11, dynamic.getTotalCost());
+        assertThrows(IllegalArgumentException.class, () -> dynamic.deleteEdge(1));
+        assertThrows(IllegalArgumentException.class, () -> new DynamicMST(graph, new int[] {0, 0}));
+    }
+}
@@ -1,46 +1,32 @@
 package org.example;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class MSTAlgorithmsTest {
 
-    // helper union-find to validate acyclic and connected properties
-    private int find(int[] parent, int v) {
-        if (parent[v] != v) parent[v] = find(parent, parent[v]);
-        return parent[v];
-    }
-
-    private void union(int[] parent, int a, int b) {
-        int ra = find(parent, a);
-        int rb = find(parent, b);
-        parent[ra] = rb;
-    }
-
     private boolean isAcyclic(List<Edge> edges, int vertices) {
-        int[] parent = new int[vertices];
-        for (int i = 0; i < vertices; i++) parent[i] = i;
+        DisjointSet sets = new DisjointSet(vertices);
         for (Edge e : edges) {
-            int u = e.getSource();
-            int v = e.getDestination();
-            int ru = find(parent, u);
-            int rv = find(parent, v);
-            if (ru == rv) return false; // cycle
-            union(parent, ru, rv);
+            if (!sets.union(e.getSource(), e.getDestination())) return false; // cycle
         }
         return true;
     }
 
     private boolean isConnected(List<Edge> edges, int vertices) {
         if (vertices == 0) return true;
-        int[] parent = new int[vertices];
-        for (int i = 0; i < vertices; i++) parent[i] = i;
-        for (Edge e : edges) union(parent, e.getSource(), e.getDestination());
-        int root = find(parent, 0);
-        for (int i = 1; i < vertices; i++) if (find(parent, i) != root) return false;
-        return true;
+        DisjointSet sets = new DisjointSet(vertices);
+        for (Edge e : edges) sets.union(e.getSource(), e.getDestination());
+        return sets.getSetCount() == 1;
     }
 
     @Test
@@ -50,13 +36,13 @@ public class MSTAlgorithmsTest {
 
         // Run Prim
         long t0 = System.nanoTime();
-        PrimAlgorithm.MSTResult primResult = PrimAlgorithm.findMST(graph);
+        MSTResult primResult = PrimAlgorithm.findMST(graph);
         long t1 = System.nanoTime();
         long primTimeMs = (t1 - t0) / 1_000_000;
 
         // Run Kruskal
         long t2 = System.nanoTime();
-        KruskalAlgorithm.MSTResult kruskalResult = KruskalAlgorithm.findMST(graph);
+        MSTResult kruskalResult = KruskalAlgorithm.findMST(graph);
         long t3 = System.nanoTime();
         long kruskalTimeMs = (t3 - t2) / 1_000_000;
 
@@ -89,8 +75,8 @@ public class MSTAlgorithmsTest {
         assertTrue(kruskalTimeMs >= 0, "Kruskal execution time should be non-negative");
 
         // Reproducibility: running again should produce the same total cost
-        PrimAlgorithm.MSTResult primResult2 = PrimAlgorithm.findMST(graph);
-        KruskalAlgorithm.MSTResult kruskalResult2 = KruskalAlgorithm.findMST(graph);
+        MSTResult primResult2 = PrimAlgorithm.findMST(graph);
+        MSTResult kruskalResult2 = KruskalAlgorithm.findMST(graph);
         assertEquals(primResult.getTotalCost(), primResult2.getTotalCost(), "Prim results should be reproducible");
         assertEquals(kruskalResult.getTotalCost(), kruskalResult2.getTotalCost(), "Kruskal results should be reproducible");
     }
@@ -101,14 +87,21 @@ public class MSTAlgorithmsTest {
         Graph g = new Graph(4);
         g.addEdge(0, 1, 10);
 
-        PrimAlgorithm.MSTResult prim = PrimAlgorithm.findMST(g);
-        KruskalAlgorithm.MSTResult kruskal = KruskalAlgorithm.findMST(g);
+        MSTResult prim = PrimAlgorithm.findMST(g);
+        MSTResult kruskal = KruskalAlgorithm.findMST(g);
 
         // Both algorithms should handle gracefully: they may return fewer than V-1 edges
         assertNotNull(prim);
         assertNotNull(kruskal);
         assertTrue(prim.getEdges().size() < g.getVertices() - 1 || prim.getEdges().isEmpty(), "Prim should not produce full MST for disconnected graph");
         assertTrue(kruskal.getEdges().size() < g.getVertices() - 1 || kruskal.getEdges().isEmpty(), "Kruskal should not produce full MST for disconnected graph");
+
+        // the result is a spanning forest: {0,1}, {2} and {3}
+        assertFalse(prim.isConnected());
+        assertEquals(3, prim.getComponentCount());
+        assertArrayEquals(new int[] {0, 0, 1, 2}, prim.getComponentIds());
+        assertArrayEquals(prim.getComponentIds(), kruskal.getComponentIds());
+        assertArrayEquals(prim.getComponentIds(), BoruvkaAlgorithm.findMST(g).getComponentIds());
     }
 
     @Test
@@ -117,11 +110,872 @@ public class MSTAlgorithmsTest {
         assertNotNull(graphs, "Should read list of graphs from input.json");
         for (int i = 0; i < graphs.size(); i++) {
             Graph g = graphs.get(i);
-            PrimAlgorithm.MSTResult p = PrimAlgorithm.findMST(g);
-            KruskalAlgorithm.MSTResult k = KruskalAlgorithm.findMST(g);
+            MSTResult p = PrimAlgorithm.findMST(g);
+            MSTResult k = KruskalAlgorithm.findMST(g);
             assertNotNull(p);
             assertNotNull(k);
             assertEquals(p.getTotalCost(), k.getTotalCost(), "Graph " + i + ": Prim and Kruskal should have equal MST cost");
         }
     }
+
+    @Test
+    public void testPrimMatchesKruskalOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            int v = 2 + random.nextInt(60);
+            Graph g = new Graph(v);
+            // spanning path keeps the graph connected, extra edges add cycles and parallel edges
+            for (int i = 1; i < v; i++) g.addEdge(i - 1, i, 1 + random.nextInt(100));
+            int extra = random.nextInt(v * 4);
+            for (int i = 0; i < extra; i++) g.addEdge(random.nextInt(v), random.nextInt(v), 1 + random.nextInt(100));
+
+            MSTResult p = PrimAlgorithm.findMST(g);
+            MSTResult k = KruskalAlgorithm.findMST(g);
+            assertEquals(k.getTotalCost(), p.getTotalCost(), "Round " + round + ": Prim and Kruskal should have equal MST cost");
+            assertEquals(v - 1, p.getEdges().size(), "Round " + round + ": Prim MST should have V-1 edges");
+            assertTrue(isAcyclic(p.getEdges(), v), "Round " + round + ": Prim MST should be acyclic");
+            assertTrue(p.getPolls() <= v - 1, "Round " + round + ": each vertex is extracted from the heap at most once");
+        }
+    }
+
+    @Test
+    public void testBuilderGraphIsCompactAndImmutable() {
+        Graph g = Graph.builder(4)
+                .addEdge(0, 1, 3)
+                .addEdge(1, 2, 1)
+                .addEdge(2, 3, 2)
+                .addEdge(3, 0, 5)
+                .build();
+
+        assertEquals(4, g.getEdgeCount());
+        assertEquals(1, g.getWeight(1));
+        Graph.Adjacency adjacency = g.getAdjacency();
+        assertEquals(2, adjacency.getDegree(0), "Vertex 0 should see both incident edges");
+        assertThrows(UnsupportedOperationException.class, () -> g.addEdge(0, 2, 1));
+
+        assertEquals(6, PrimAlgorithm.findMST(g).getTotalCost());
+        assertEquals(6, KruskalAlgorithm.findMST(g).getTotalCost());
+        assertThrows(IllegalStateException.class, () -> Graph.builder(2).addEdge(0, 2, 1).build());
+    }
+
+    @Test
+    public void testKruskalHandlesLongPathsAndNegativeWeights() {
+        // a long path would overflow a recursive find; negative weights exercise the radix key mapping
+        int v = 200_000;
+        Graph.Builder builder = Graph.builder(v);
+        for (int i = 1; i < v; i++) builder.addEdge(i - 1, i, (i % 7) - 3);
+        builder.addEdge(0, v - 1, -1_000_000);
+        Graph g = builder.build();
+
+        MSTResult k = KruskalAlgorithm.findMST(g);
+        assertEquals(v - 1, k.getEdges().size());
+        assertEquals(-1_000_000, k.getEdges().get(0).getWeight(), "The lightest edge is accepted first");
+        assertEquals(PrimAlgorithm.findMST(g).getTotalCost(), k.getTotalCost());
+
+        int[] order = EdgeSort.sortByWeight(g);
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(g.getWeight(order[i - 1]) <= g.getWeight(order[i]), "Edges must be sorted by weight");
+        }
+    }
+
+    @Test
+    public void testBoruvkaMatchesKruskal() {
+        Random random = new Random(7);
+        // the larger sizes exceed one fork-join chunk and run the phases in parallel
+        int[] sizes = {1, 2, 10, 300, 5_000, 40_000};
+        for (int v : sizes) {
+            Graph.Builder builder = Graph.builder(v);
+            for (int i = 1; i < v; i++) builder.addEdge(random.nextInt(i), i, random.nextInt(50));
+            for (int i = 0; i < v * 3; i++) builder.addEdge(random.nextInt(v), random.nextInt(v), random.nextInt(50));
+            Graph g = builder.build();
+
+            MSTResult b = BoruvkaAlgorithm.findMST(g);
+            MSTResult k = KruskalAlgorithm.findMST(g);
+            assertEquals(k.getTotalCost(), b.getTotalCost(), "V=" + v + ": Borůvka and Kruskal should have equal MST cost");
+            assertEquals(k.getEdges().size(), b.getEdges().size(), "V=" + v + ": Borůvka should span the graph");
+            assertTrue(isAcyclic(b.getEdges(), v), "V=" + v + ": Borůvka MST should be acyclic");
+            assertTrue(b.getPhases() <= 32 - Integer.numberOfLeadingZeros(Math.max(1, v)), "V=" + v + ": at most log2(V) phases");
+        }
+    }
+
+    @Test
+    public void testFilterKruskalOnDenseGraphs() {
+        Random random = new Random(11);
+        int[][] shapes = {{50, 1_200}, {400, 200_000}, {2_000, 150_000}};
+        for (int[] shape : shapes) {
+            int v = shape[0];
+            Graph.Builder builder = Graph.builder(v);
+            for (int i = 1; i < v; i++) builder.addEdge(random.nextInt(i), i, 1 + random.nextInt(1000));
+            for (int i = v - 1; i < shape[1]; i++) builder.addEdge(random.nextInt(v), random.nextInt(v), 1 + random.nextInt(1000));
+            Graph g = builder.build();
+
+            MSTResult sorted = KruskalAlgorithm.findMSTSorted(g);
+            MSTResult filtered = KruskalAlgorithm.findMSTFiltered(g, ForkJoinPool.commonPool());
+            assertEquals(sorted.getTotalCost(), filtered.getTotalCost(), "V=" + v + ": Filter-Kruskal should find the same cost");
+            assertEquals(v - 1, filtered.getEdges().size());
+            assertTrue(isAcyclic(filtered.getEdges(), v));
+            assertEquals(PrimAlgorithm.findMST(g).getTotalCost(), KruskalAlgorithm.findMST(g).getTotalCost());
+        }
+
+        // all weights equal: the three-way partition must still make progress
+        Graph.Builder flatBuilder = Graph.builder(100);
+        for (int i = 0; i < 20_000; i++) flatBuilder.addEdge(random.nextInt(100), random.nextInt(100), 5);
+        for (int i = 1; i < 100; i++) flatBuilder.addEdge(i - 1, i, 5);
+        Graph flat = flatBuilder.build();
+        assertEquals(99 * 5, KruskalAlgorithm.findMSTFiltered(flat, ForkJoinPool.commonPool()).getTotalCost());
+
+        // median-of-three killer built the way McIlroy's adversary does: unassigned weights sit
+        // below every assigned one, and each pivot sample but one gets the next highest weight,
+        // so every light side is its partition minus about two edges. The solve gets a small
+        // stack, which the ~18k light sides nested without a depth bound would overflow.
+        int edges = 40_000;
+        int[] weights = new int[edges];
+        int[] ids = new int[edges];
+        java.util.Arrays.fill(weights, -1);
+        for (int e = 0; e < edges; e++) ids[e] = e;
+        int next = 10 * edges;
+        for (int from = 0, to = edges; to - from > KruskalAlgorithm.FILTER_BASE_CASE; ) {
+            int[] samples = {ids[from], ids[from + (to - from) / 2], ids[to - 1]};
+            int unassigned = 0;
+            for (int e : samples) if (weights[e] < 0) unassigned++;
+            for (int e : samples) if (weights[e] < 0 && unassigned-- > 1) weights[e] = --next;
+            int a = weights[samples[0]], b = weights[samples[1]], c = weights[samples[2]];
+            int pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            int lt = from, gt = to, i = from;
+            while (i < gt) {
+                int id = ids[i];
+                if (weights[id] < pivot) {
+                    ids[i++] = ids[lt];
+                    ids[lt++] = id;
+                } else if (weights[id] > pivot) {
+                    ids[i] = ids[--gt];
+                    ids[gt] = id;
+                } else {
+                    i++;
+                }
+            }
+            to = lt;
+        }
+        int low = 0;
+        for (int e = 0; e < edges; e++) if (weights[e] < 0) weights[e] = low++;
+        Graph.Builder killerBuilder = Graph.builder(1_000);
+        for (int e = 0; e < edges; e++) killerBuilder.addEdge(e % 1_000, random.nextInt(1_000), weights[e]);
+        Graph killer = killerBuilder.build();
+        MSTResult[] killed = new MSTResult[1];
+        Thread solver = new Thread(null, () -> killed[0] = KruskalAlgorithm.findMSTFiltered(killer,
+                ForkJoinPool.commonPool()), "filter-kruskal", 1 << 18);
+        solver.start();
+        assertDoesNotThrow(() -> solver.join());
+        assertNotNull(killed[0], "Filter-Kruskal failed on the killer input");
+        assertEquals(KruskalAlgorithm.findMSTSorted(killer).getTotalCost(), killed[0].getTotalCost());
+    }
+
+    @Test
+    public void testStreamingLoaderReadsBothFormats(@TempDir Path dir) throws IOException {
+        Path indexed = dir.resolve("indexed.json");
+        Files.writeString(indexed, "{\"vertices\": 3, \"edges\": [{\"source\": 0, \"destination\": 1, \"weight\": 4},"
+                + " {\"source\": 1, \"destination\": 2, \"weight\": 2}, {\"source\": 0, \"destination\": 2, \"weight\": 1}]}");
+        Graph g = JSONHandler.readGraphFromJSON(indexed.toString());
+        assertNotNull(g);
+        assertEquals(3, g.getVertices());
+        assertEquals(3, g.getEdgeCount());
+        assertNull(g.getNodeNames());
+        assertEquals(3, KruskalAlgorithm.findMST(g).getTotalCost());
+
+        // edges listed before nodes must still resolve against the node order
+        Path named = dir.resolve("named.json");
+        Files.writeString(named, "{\"graphs\": [{\"edges\": [{\"from\": \"B\", \"to\": \"C\", \"weight\": 7}], \"id\": 9,"
+                + " \"nodes\": [\"A\", \"B\", \"C\"]}, {\"nodes\": [\"X\", \"Y\"], \"edges\": [{\"from\": \"X\", \"to\": \"Y\", \"weight\": 1}]}]}");
+        List<Graph> graphs = JSONHandler.readGraphsFromJSON(named.toString());
+        assertNotNull(graphs);
+        assertEquals(2, graphs.size());
+        assertEquals(List.of("A", "B", "C"), graphs.get(0).getNodeNames());
+        assertEquals(1, graphs.get(0).getSource(0));
+        assertEquals(2, graphs.get(0).getDestination(0));
+        assertEquals(7, graphs.get(0).getWeight(0));
+        assertEquals(List.of("A", "B", "C"), JSONHandler.readGraphFromJSON(named.toString()).getNodeNames());
+    }
+
+    @Test
+    public void testGraphStreamYieldsGraphsInFileOrder() throws IOException {
+        List<Graph> all = JSONHandler.readGraphsFromJSON("data/input.json");
+        try (JSONHandler.GraphIterator graphs = JSONHandler.openGraphs("data/input.json")) {
+            for (Graph expected : all) {
+                assertTrue(graphs.hasNext());
+                Graph g = graphs.next();
+                assertEquals(expected.getVertices(), g.getVertices());
+                assertEquals(expected.getEdgeCount(), g.getEdgeCount());
+            }
+            assertFalse(graphs.hasNext());
+        }
+        try (java.util.stream.Stream<Graph> graphs = JSONHandler.streamGraphs("data/input.json")) {
+            assertEquals(all.size(), graphs.count());
+        }
+    }
+
+    @Test
+    public void testGraphStreamNeverYieldsNull(@TempDir Path dir) throws IOException {
+        // a graph object without nodes or vertices is the empty graph, and later graphs still follow
+        Path file = dir.resolve("empty.json");
+        Files.writeString(file, "{\"graphs\": [{\"edges\": []}, {\"vertices\": 2, \"edges\": "
+                + "[{\"source\": 0, \"destination\": 1, \"weight\": 4}]}]}");
+        try (java.util.stream.Stream<Graph> graphs = JSONHandler.streamGraphs(file.toString())) {
+            List<Graph> read = graphs.toList();
+            assertEquals(2, read.size());
+            assertEquals(0, read.get(0).getVertices());
+            assertEquals(0, Main.solveGraph(1, read.get(0)).getPrim().getTotalCost());
+            assertEquals(4, Main.solveGraph(2, read.get(1)).getPrim().getTotalCost());
+        }
+
+        // named edges with no nodes list to resolve them fail with a parse error
+        Files.writeString(file, "{\"graphs\": [{\"edges\": [{\"from\": \"A\", \"to\": \"B\", \"weight\": 1}]}]}");
+        try (JSONHandler.GraphIterator graphs = JSONHandler.openGraphs(file.toString())) {
+            assertThrows(com.google.gson.JsonParseException.class, graphs::next);
+        }
+    }
+
+    @Test
+    public void testBatchRunnerWritesResultsInGraphOrder(@TempDir Path dir) throws Exception {
+        Random random = new Random(3);
+        List<Graph> graphs = new java.util.ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            // mix large and tiny graphs so completion order differs from submission order
+            int v = (i % 5 == 0) ? 3_000 : 3;
+            Graph.Builder builder = Graph.builder(v);
+            for (int j = 1; j < v; j++) builder.addEdge(random.nextInt(j), j, random.nextInt(100));
+            graphs.add(builder.build());
+        }
+
+        Path json = dir.resolve("out.json");
+        Path csv = dir.resolve("summary.csv");
+        try (ResultWriter writer = new ResultWriter(json.toString(), csv.toString());
+             BatchRunner runner = BatchRunner.create(false, 4, 3)) {
+            runner.run(graphs.iterator(), writer);
+        }
+
+        List<String> lines = Files.readAllLines(csv);
+        assertEquals(graphs.size() + 1, lines.size());
+        for (int i = 1; i < lines.size(); i++) {
+            String[] fields = lines.get(i).split(",");
+            assertEquals(String.valueOf(i), fields[0], "Results must be written in graph_id order");
+            assertEquals(fields[3], fields[4], "Prim and Kruskal costs must match for graph " + i);
+        }
+    }
+
+    @Test
+    public void testTimingHarnessSummarisesRepeatedRuns() {
+        Graph graph = JSONHandler.readGraphFromJSON("data/input.json");
+        TimingHarness harness = new TimingHarness(5, 9);
+        TimingHarness.Measurement<MSTResult> m = harness.measure(() -> KruskalAlgorithm.findMST(graph));
+
+        assertEquals(9, m.getRuns());
+        assertEquals(7, m.getResult().getTotalCost());
+        assertTrue(m.getMinMs() <= m.getMedianMs() && m.getMedianMs() <= m.getP90Ms());
+        assertTrue(m.getStddevMs() >= 0);
+        assertTrue(m.getAllocatedBytesPerRun() >= 0);
+        assertFalse(m.differsSignificantlyFrom(m), "A measurement cannot differ from itself");
+        assertThrows(IllegalArgumentException.class, () -> new TimingHarness(0, 0));
+    }
+
+    @Test
+    public void testBinaryFormatRoundTripsMappedGraph(@TempDir Path dir) throws IOException {
+        Random random = new Random(11);
+        int v = 500;
+        Graph.Builder builder = Graph.builder(v);
+        for (int i = 1; i < v; i++) builder.addEdge(random.nextInt(i), i, random.nextInt(1000) - 500);
+        for (int i = 0; i < 2_000; i++) builder.addEdge(random.nextInt(v), random.nextInt(v), random.nextInt(1000));
+        Graph original = builder.build();
+
+        Path withAdjacency = dir.resolve("graph.mstg");
+        BinaryGraphFormat.write(original, withAdjacency);
+        Graph mapped = BinaryGraphFormat.load(withAdjacency);
+        assertEquals(v, mapped.getVertices());
+        assertEquals(original.getEdgeCount(), mapped.getEdgeCount());
+        assertTrue(mapped.hasAdjacency(), "CSR index should come from the file");
+        assertEquals(original.getWeight(1234), mapped.getWeight(1234));
+        assertEquals(original.getAdjacency().getDegree(7), mapped.getAdjacency().getDegree(7));
+        long expected = KruskalAlgorithm.findMST(original).getTotalCost();
+        assertEquals(expected, KruskalAlgorithm.findMST(mapped).getTotalCost());
+        assertEquals(expected, PrimAlgorithm.findMST(mapped).getTotalCost());
+        assertEquals(expected, BoruvkaAlgorithm.findMST(mapped).getTotalCost());
+        assertThrows(UnsupportedOperationException.class, () -> mapped.addEdge(0, 1, 1));
+
+        // names survive, and without a stored CSR the index is built on demand
+        Graph named = JSONHandler.readGraphFromJSON("data/input.json");
+        Path withoutAdjacency = dir.resolve("named.mstg");
+        BinaryGraphFormat.write(named, withoutAdjacency, false);
+        Graph loaded = BinaryGraphFormat.load(withoutAdjacency);
+        assertFalse(loaded.hasAdjacency());
+        assertEquals(named.getNodeNames(), loaded.getNodeNames());
+        assertEquals(PrimAlgorithm.findMST(named).getTotalCost(), PrimAlgorithm.findMST(loaded).getTotalCost());
+
+        Path notBinary = dir.resolve("bad.mstg");
+        Files.writeString(notBinary, "{\"vertices\": 0}".repeat(8));
+        assertThrows(IOException.class, () -> BinaryGraphFormat.load(notBinary));
+    }
+
+    @Test
+    public void testExternalKruskalMergesSortedRuns(@TempDir Path dir) throws IOException {
+        Random random = new Random(13);
+        int v = 300;
+        Graph.Builder builder = Graph.builder(v);
+        for (int i = 1; i < v; i++) builder.addEdge(random.nextInt(i), i, random.nextInt(50) - 10);
+        for (int i = 0; i < 3_000; i++) builder.addEdge(random.nextInt(v), random.nextInt(v), random.nextInt(50));
+        Graph g = builder.build();
+
+        // small runs force many spilled runs and a wide merge; ties make edge order matter
+        MSTResult external = ExternalKruskal.findMST(g, 97, dir);
+        MSTResult sorted = KruskalAlgorithm.findMSTSorted(g);
+        assertEquals(sorted.getTotalCost(), external.getTotalCost());
+        assertArrayEquals(sorted.getEdgeIds(), external.getEdgeIds());
+        assertTrue(external.getComparisons() < g.getEdgeCount(), "Merge should stop once V-1 edges are accepted");
+        try (java.util.stream.Stream<Path> left = Files.list(dir)) {
+            assertEquals(0, left.count(), "Run files should be deleted");
+        }
+
+        Path file = dir.resolve("g.mstg");
+        BinaryGraphFormat.write(g, file, false);
+        assertEquals(sorted.getTotalCost(), ExternalKruskal.findMST(file).getTotalCost());
+    }
+
+    @Test
+    public void testResultWriterStreamsTypedResults(@TempDir Path dir) throws IOException {
+        Graph graph = JSONHandler.readGraphFromJSON("data/input.json");
+        Path json = dir.resolve("out.json");
+        try (ResultWriter writer = new ResultWriter(json.toString(), dir.resolve("summary.csv").toString())) {
+            writer.write(Main.solveGraph(1, graph));
+        }
+
+        com.google.gson.JsonObject result = com.google.gson.JsonParser.parseString(Files.readString(json))
+                .getAsJsonObject().getAsJsonArray("results").get(0).getAsJsonObject();
+        com.google.gson.JsonObject kruskal = result.getAsJsonObject("kruskal");
+        assertEquals(7, kruskal.get("total_cost").getAsInt());
+        com.google.gson.JsonArray edges = kruskal.getAsJsonArray("mst_edges");
+        assertEquals(graph.getVertices() - 1, edges.size());
+        assertTrue(graph.getNodeNames().contains(edges.get(0).getAsJsonObject().get("from").getAsString()),
+                "Endpoints should be written as node names");
+        assertEquals(2, result.getAsJsonObject("boruvka").getAsJsonArray("edges_per_phase").size());
+        assertTrue(result.getAsJsonObject("comparison").get("cost_equal").getAsBoolean());
+    }
+
+    @Test
+    public void testMetricsArePluggable() {
+        Graph graph = JSONHandler.readGraphFromJSON("data/input.json");
+        MSTResult counted = KruskalAlgorithm.findMSTSorted(graph, new CountingMetrics());
+        MSTResult silent = KruskalAlgorithm.findMSTSorted(graph, MSTMetrics.NONE);
+
+        assertEquals(counted.getTotalCost(), silent.getTotalCost());
+        assertEquals(0, silent.getOperations(), "NONE records nothing");
+        assertEquals(counted.getComparisons() + counted.getFindCalls() + counted.getUnionCalls(), counted.getOperations());
+        assertEquals(graph.getVertices() - 1, counted.getCounter(MSTMetrics.Counter.UNION_CALLS));
+        assertTrue(counted.getPhaseNanos(MSTMetrics.Phase.SORT) > 0);
+        assertEquals(0, counted.getPhaseNanos(MSTMetrics.Phase.HEAP), "Kruskal has no heap phase");
+        assertEquals("kruskal", counted.getAlgorithm());
+
+        MSTResult prim = PrimAlgorithm.findMST(graph, new CountingMetrics());
+        assertEquals(graph.getVertices() - 1, prim.getPolls());
+        assertTrue(prim.getPhaseNanos(MSTMetrics.Phase.HEAP) > 0);
+    }
+
+    @Test
+    public void testAdaptiveSolverPicksEngineByShape() {
+        Random random = new Random(17);
+        int v = 200;
+        Graph.Builder sparse = Graph.builder(v);
+        Graph.Builder narrow = Graph.builder(v);
+        Graph.Builder wide = Graph.builder(v);
+        for (int i = 1; i < v; i++) {
+            int parent = random.nextInt(i);
+            sparse.addEdge(parent, i, random.nextInt(100));
+            narrow.addEdge(parent, i, random.nextInt(100));
+            wide.addEdge(parent, i, random.nextInt(1 << 20));
+        }
+        for (int i = 0; i < 20 * v; i++) {
+            int a = random.nextInt(v);
+            int b = random.nextInt(v);
+            narrow.addEdge(a, b, random.nextInt(100));
+            wide.addEdge(a, b, random.nextInt(1 << 20));
+        }
+
+        AdaptiveSolver solver = new AdaptiveSolver(1);
+        assertEquals(MSTSolver.Engine.KRUSKAL, solver.select(sparse.build()).getEngine());
+        assertEquals(MSTSolver.Engine.FILTER_KRUSKAL, solver.select(narrow.build()).getEngine());
+        Graph wideGraph = wide.build();
+        assertEquals(MSTSolver.Engine.PRIM, solver.select(wideGraph).getEngine());
+        assertNotNull(solver.select(wideGraph).getReason());
+
+        long expected = KruskalAlgorithm.findMSTSorted(wideGraph).getTotalCost();
+        assertEquals(expected, solver.solve(wideGraph).getTotalCost());
+        for (MSTSolver.Engine engine : MSTSolver.Engine.values()) {
+            assertEquals(expected, engine.solve(wideGraph, MSTMetrics.NONE).getTotalCost(), engine.getName());
+        }
+    }
+
+    @Test
+    public void testSpanningForestSolvesComponentsIndependently() {
+        Random random = new Random(19);
+        // 100 disjoint random components with interleaved vertex ids, enough edges for the parallel path
+        int components = 100;
+        int perComponent = 40;
+        int v = components * perComponent;
+        Graph.Builder builder = Graph.builder(v + 5); // plus isolated vertices
+        for (int c = 0; c < components; c++) {
+            for (int i = 1; i < perComponent; i++) {
+                builder.addEdge(random.nextInt(i) * components + c, i * components + c, random.nextInt(1000));
+            }
+            for (int i = 0; i < 700; i++) {
+                builder.addEdge(random.nextInt(perComponent) * components + c, random.nextInt(perComponent) * components + c,
+                        random.nextInt(1000));
+            }
+        }
+        Graph g = builder.build();
+        assertTrue(g.getEdgeCount() >= SpanningForest.PARALLEL_MIN_EDGES);
+
+        MSTResult forest = SpanningForest.findForest(g);
+        MSTResult prim = PrimAlgorithm.findMST(g);
+        MSTResult kruskal = KruskalAlgorithm.findMST(g);
+        assertEquals("forest", forest.getAlgorithm());
+        assertFalse(forest.isConnected());
+        assertEquals(components + 5, forest.getComponentCount());
+        assertEquals(v - components, forest.getEdges().size());
+        assertEquals(kruskal.getTotalCost(), forest.getTotalCost());
+        assertEquals(kruskal.getTotalCost(), prim.getTotalCost());
+        assertArrayEquals(kruskal.getComponentIds(), forest.getComponentIds());
+        assertArrayEquals(prim.getComponentIds(), forest.getComponentIds());
+        assertEquals(perComponent - 1, forest.getComponentEdgeIds(forest.getComponentIds()[7]).length);
+
+        // few components take the sequential path, which still stops at V - components edges
+        Graph two = Graph.builder(4).addEdge(0, 1, 1).addEdge(2, 3, 1).addEdge(0, 1, 5).addEdge(2, 3, 9).build();
+        MSTResult small = SpanningForest.findForest(two);
+        assertEquals(2, small.getTotalCost());
+        assertEquals(2, small.getComponentCount());
+        assertEquals(2, small.getComparisons(), "Scan should stop once both trees are complete");
+    }
+
+    @Test
+    public void testSymbolTableInternsAcrossGraphs(@TempDir Path dir) throws IOException {
+        SymbolTable symbols = new SymbolTable();
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, symbols.intern("node-" + i));
+        }
+        assertEquals(10_000, symbols.size());
+        assertEquals(1234, symbols.intern("node-1234"));
+        assertEquals(9999, symbols.indexOf(new String("node-9999")));
+        assertEquals(-1, symbols.indexOf("node-10000"));
+        assertEquals("node-42", symbols.nameOf(42));
+
+        // same vocabulary twice, then a reordered overlapping one: names resolve per graph
+        String nodes = "[\"A\", \"B\", \"C\"]";
+        Path batch = dir.resolve("batch.json");
+        Files.writeString(batch, "{\"graphs\": ["
+                + "{\"nodes\": " + nodes + ", \"edges\": [{\"from\": \"A\", \"to\": \"C\", \"weight\": 1}]},"
+                + "{\"nodes\": " + nodes + ", \"edges\": [{\"from\": \"C\", \"to\": \"B\", \"weight\": 2}]},"
+                + "{\"edges\": [{\"from\": \"A\", \"to\": \"D\", \"weight\": 3}], \"nodes\": [\"D\", \"A\"]}]}");
+        SymbolTable shared = new SymbolTable();
+        List<Graph> graphs = new java.util.ArrayList<>();
+        try (JSONHandler.GraphIterator iterator = JSONHandler.openGraphs(batch.toString(), shared)) {
+            iterator.forEachRemaining(graphs::add);
+        }
+        assertEquals(3, graphs.size());
+        assertEquals(4, shared.size(), "Each distinct name is interned once");
+        assertSame(graphs.get(0).getNodeNames(), graphs.get(1).getNodeNames(), "Repeated vocabulary is reused");
+        assertSame(graphs.get(0).getNodeNames().get(0), graphs.get(2).getNodeNames().get(1));
+        assertEquals(0, graphs.get(0).getSource(0));
+        assertEquals(2, graphs.get(0).getDestination(0));
+        assertEquals(2, graphs.get(1).getSource(0));
+        assertEquals(1, graphs.get(1).getDestination(0));
+        assertEquals(1, graphs.get(2).getSource(0));
+        assertEquals(0, graphs.get(2).getDestination(0));
+
+        // by default names are interned per graph, so only an identical vocabulary is shared
+        List<Graph> separate = JSONHandler.readGraphsFromJSON(batch.toString());
+        assertSame(separate.get(0).getNodeNames(), separate.get(1).getNodeNames());
+        assertNotSame(separate.get(0).getNodeNames().get(0), separate.get(2).getNodeNames().get(1));
+        assertEquals(1, separate.get(2).getSource(0));
+        assertEquals(0, separate.get(2).getDestination(0));
+
+        // a name from an earlier graph is unknown in a graph that does not list it
+        Path stale = dir.resolve("stale.json");
+        Files.writeString(stale, "{\"graphs\": [{\"nodes\": " + nodes + ", \"edges\": []},"
+                + "{\"nodes\": [\"X\"], \"edges\": [{\"from\": \"X\", \"to\": \"A\", \"weight\": 1}]}]}");
+        try (JSONHandler.GraphIterator iterator = JSONHandler.openGraphs(stale.toString())) {
+            iterator.next();
+            assertThrows(com.google.gson.JsonParseException.class, iterator::next);
+        }
+    }
+
+    private static java.lang.ref.WeakReference<Graph> solveAndForget(ResultCache cache) {
+        Graph graph = GraphGenerator.generate(GraphGenerator.Topology.ERDOS_RENYI, 200, 4,
+                GraphGenerator.Weights.UNIFORM_SMALL, 7);
+        Main.solveGraph(9, graph, TimingHarness.SINGLE_RUN, cache);
+        return new java.lang.ref.WeakReference<>(graph);
+    }
+
+    @Test
+    public void testResultCacheSkipsSolvedGraphs(@TempDir Path dir) throws IOException {
+        Graph graph = JSONHandler.readGraphFromJSON("data/input.json");
+        Path cacheDir = dir.resolve("cache");
+        ResultCache cache = new ResultCache(cacheDir, 1 << 20, 1 << 20, java.time.Duration.ofHours(1));
+
+        GraphResult cold = Main.solveGraph(1, graph, TimingHarness.SINGLE_RUN, cache);
+        GraphResult warm = Main.solveGraph(2, graph, TimingHarness.SINGLE_RUN, cache);
+        assertEquals(ResultCache.Status.MISS, cold.getCacheStatus());
+        assertEquals(ResultCache.Status.HIT, warm.getCacheStatus());
+        assertSame(cold.getKruskal().getResult().getEdgeIds(), warm.getKruskal().getResult().getEdgeIds(),
+                "Memory hit reuses the result");
+        assertEquals(cold.getKruskal().getResult().getEdges().get(0).getWeight(),
+                warm.getKruskal().getResult().getEdges().get(0).getWeight());
+
+        // entries keep edge ids only, so the cache does not keep a solved graph alive
+        java.lang.ref.WeakReference<Graph> forgotten = solveAndForget(cache);
+        for (int i = 0; i < 20 && forgotten.get() != null; i++) {
+            System.gc();
+        }
+        assertNull(forgotten.get(), "A cached result must not retain its input graph");
+
+        // a new run finds the entry on disk
+        ResultCache reopened = new ResultCache(cacheDir, 1 << 20, 1 << 20, java.time.Duration.ofHours(1));
+        GraphResult fromDisk = Main.solveGraph(3, graph, TimingHarness.SINGLE_RUN, reopened);
+        assertEquals(ResultCache.Status.HIT, fromDisk.getCacheStatus());
+        MSTResult stored = fromDisk.getBoruvka().getResult();
+        MSTResult solved = cold.getBoruvka().getResult();
+        assertEquals(solved.getTotalCost(), stored.getTotalCost());
+        assertArrayEquals(solved.getEdgeIds(), stored.getEdgeIds());
+        assertArrayEquals(solved.getComponentIds(), stored.getComponentIds());
+        assertArrayEquals(solved.getEdgesPerPhase(), stored.getEdgesPerPhase());
+        assertEquals(solved.getOperations(), stored.getOperations());
+        assertEquals(cold.getPrim().getExecutionTimeMs(), fromDisk.getPrim().getExecutionTimeMs());
+        assertEquals(1, reopened.getHits());
+        assertEquals(0, reopened.getMisses());
+
+        // the key ignores edge orientation but not weights or timing settings
+        Graph.Builder flipped = Graph.builder(graph.getVertices());
+        Graph.Builder reweighted = Graph.builder(graph.getVertices());
+        for (int e = 0; e < graph.getEdgeCount(); e++) {
+            flipped.addEdge(graph.getDestination(e), graph.getSource(e), graph.getWeight(e));
+            reweighted.addEdge(graph.getSource(e), graph.getDestination(e), graph.getWeight(e) + (e == 0 ? 1 : 0));
+        }
+        String key = ResultCache.key(graph, TimingHarness.SINGLE_RUN);
+        assertEquals(key, ResultCache.key(flipped.build(), TimingHarness.SINGLE_RUN));
+        assertNotEquals(key, ResultCache.key(reweighted.build(), TimingHarness.SINGLE_RUN));
+        assertNotEquals(key, ResultCache.key(graph, new TimingHarness(1, 3)));
+
+        // entries past the age limit are dropped when the cache opens
+        Path file = cacheDir.resolve(key + ".mstr");
+        Files.setLastModifiedTime(file, java.nio.file.attribute.FileTime.fromMillis(System.currentTimeMillis() - 7_200_000));
+        ResultCache aged = new ResultCache(cacheDir, 1 << 20, 1 << 20, java.time.Duration.ofHours(1));
+        assertFalse(Files.exists(file));
+        assertNull(aged.get(key, graph));
+        assertEquals(1, aged.getMisses());
+
+        // parallel workers share one cache; a second pass over the same graphs only hits
+        ResultCache shared = new ResultCache(dir.resolve("shared"), 1 << 14, 1 << 20, java.time.Duration.ofHours(1));
+        List<Graph> batch = java.util.stream.IntStream.range(0, 16)
+                .mapToObj(i -> GraphGenerator.generate(GraphGenerator.Topology.ERDOS_RENYI, 100, 4,
+                        GraphGenerator.Weights.UNIFORM_SMALL, i))
+                .toList();
+        batch.parallelStream().forEach(g -> Main.solveGraph(0, g, TimingHarness.SINGLE_RUN, shared));
+        assertTrue(batch.parallelStream().allMatch(g -> Main.solveGraph(0, g, TimingHarness.SINGLE_RUN, shared)
+                .getCacheStatus() == ResultCache.Status.HIT), "Every graph is served from memory or disk");
+        assertEquals(16, shared.getHits());
+
+        // a zero disk budget keeps nothing on disk, a zero memory budget nothing in memory
+        ResultCache tiny = new ResultCache(cacheDir, 0, 0, java.time.Duration.ofHours(1));
+        Main.solveGraph(1, graph, TimingHarness.SINGLE_RUN, tiny);
+        assertFalse(Files.exists(file));
+        assertNull(tiny.get(key, graph));
+
+        // summary.csv carries the status and running totals
+        Path csv = dir.resolve("summary.csv");
+        try (ResultWriter writer = new ResultWriter(dir.resolve("out.json").toString(), csv.toString())) {
+            writer.write(cold);
+            writer.write(warm);
+        }
+        List<String> lines = Files.readAllLines(csv);
+        assertTrue(lines.get(0).endsWith(",cache_status,cache_hits,cache_misses"));
+        assertTrue(lines.get(1).endsWith(",miss,0,1"));
+        assertTrue(lines.get(2).endsWith(",hit,1,1"));
+    }
+
+    @Test
+    public void testLongAndDoubleWeights(@TempDir Path dir) throws IOException {
+        // int weights whose sum does not fit in an int
+        Graph heavy = Graph.builder(3).addEdge(0, 1, 2_000_000_000).addEdge(1, 2, 2_000_000_000).build();
+        assertEquals(Graph.WeightType.INT, heavy.getWeightType());
+        assertEquals(4_000_000_000L, KruskalAlgorithm.findMST(heavy).getTotalCost());
+        assertEquals(4_000_000_000L, PrimAlgorithm.findMST(heavy).getTotalCost());
+
+        // long weights beyond the int range, and doubles that differ only in the fraction
+        Random random = new Random(20);
+        int v = 300;
+        Graph.Builder longs = Graph.builder(v);
+        Graph.Builder doubles = Graph.builder(v);
+        Graph.Builder ranks = Graph.builder(v);
+        for (int i = 0; i < 3000; i++) {
+            int a = i < v - 1 ? i : random.nextInt(v);
+            int b = i < v - 1 ? i + 1 : random.nextInt(v);
+            int w = random.nextInt(500) - 250;
+            longs.addEdge(a, b, ((long) w << 33) + 7);
+            doubles.addEdge(a, b, w / 8.0 - 0.01);
+            ranks.addEdge(a, b, w);
+        }
+        Graph longGraph = longs.build();
+        Graph doubleGraph = doubles.build();
+        Graph intGraph = ranks.build();
+        assertEquals(Graph.WeightType.LONG, longGraph.getWeightType());
+        assertEquals(Graph.WeightType.DOUBLE, doubleGraph.getWeightType());
+
+        // same weight order, so the same tree as the int graph
+        MSTResult expected = KruskalAlgorithm.findMSTSorted(intGraph);
+        for (Graph g : List.of(longGraph, doubleGraph)) {
+            for (MSTResult result : List.of(KruskalAlgorithm.findMSTSorted(g), PrimAlgorithm.findMST(g),
+                    BoruvkaAlgorithm.findMST(g), KruskalAlgorithm.findMSTFiltered(g, ForkJoinPool.commonPool()))) {
+                assertEquals(g.sumDoubleWeights(expected.getEdgeIds()), result.getTotalWeight(), 1e-6,
+                        g.getWeightType() + " " + result.getAlgorithm());
+            }
+        }
+        long expectedLong = 0;
+        for (int edge : expected.getEdgeIds()) {
+            expectedLong += longGraph.getLongWeight(edge);
+        }
+        assertEquals(expectedLong, KruskalAlgorithm.findMST(longGraph).getTotalCost());
+        assertTrue(Math.abs(expectedLong) > Integer.MAX_VALUE);
+
+        // mixed builders widen: int then long then double
+        Graph mixed = Graph.builder(3).addEdge(0, 1, 5).addEdge(1, 2, 1L << 40).addEdge(0, 2, -0.0).build();
+        assertEquals(Graph.WeightType.DOUBLE, mixed.getWeightType());
+        assertEquals(5.0, mixed.getDoubleWeight(0));
+        assertEquals(0.0, mixed.getDoubleWeight(2));
+        assertEquals(5.0, PrimAlgorithm.findMST(mixed).getTotalWeight());
+
+        // Edge objects carry the exact weight, never the rank the algorithms order by
+        Edge fractional = KruskalAlgorithm.findMST(Graph.builder(2).addEdge(0, 1, 3.75).build()).getEdges().get(0);
+        assertEquals(3.75, fractional.getDoubleWeight());
+        assertThrows(IllegalStateException.class, fractional::getWeight);
+        assertThrows(IllegalStateException.class, fractional::getLongWeight);
+        Edge wide = PrimAlgorithm.findMST(Graph.builder(2).addEdge(0, 1, 1L << 40).build()).getEdges().get(0);
+        assertEquals(1L << 40, wide.getLongWeight());
+        assertThrows(IllegalStateException.class, wide::getWeight);
+        assertThrows(IllegalArgumentException.class, () -> Graph.builder(2).addEdge(0, 1, Double.NaN));
+
+        // typed weights survive the binary format
+        Path file = dir.resolve("weights.mstg");
+        BinaryGraphFormat.write(doubleGraph, file);
+        Graph mapped = BinaryGraphFormat.load(file);
+        assertEquals(Graph.WeightType.DOUBLE, mapped.getWeightType());
+        assertEquals(doubleGraph.getDoubleWeight(77), mapped.getDoubleWeight(77));
+        assertEquals(BoruvkaAlgorithm.findMST(doubleGraph).getTotalWeight(), BoruvkaAlgorithm.findMST(mapped).getTotalWeight());
+
+        // JSON: fractional weights make a double graph, large ones a long graph
+        Path json = dir.resolve("weights.json");
+        Files.writeString(json, "{\"graphs\": [{\"vertices\": 3, \"edges\": [{\"source\": 0, \"destination\": 1, \"weight\": 2},"
+                + " {\"source\": 1, \"destination\": 2, \"weight\": 0.25}, {\"source\": 0, \"destination\": 2, \"weight\": 1.5}]},"
+                + " {\"vertices\": 2, \"edges\": [{\"source\": 0, \"destination\": 1, \"weight\": 10000000000}]}]}");
+        List<Graph> graphs = JSONHandler.readGraphsFromJSON(json.toString());
+        assertEquals(Graph.WeightType.DOUBLE, graphs.get(0).getWeightType());
+        assertEquals(1.75, KruskalAlgorithm.findMST(graphs.get(0)).getTotalWeight());
+        assertEquals(Graph.WeightType.LONG, graphs.get(1).getWeightType());
+        assertEquals(10_000_000_000L, KruskalAlgorithm.findMST(graphs.get(1)).getTotalCost());
+
+        Path out = dir.resolve("out.json");
+        try (ResultWriter writer = new ResultWriter(out.toString(), dir.resolve("summary.csv").toString())) {
+            writer.write(Main.solveGraph(1, graphs.get(0)));
+        }
+        com.google.gson.JsonObject written = com.google.gson.JsonParser.parseString(Files.readString(out))
+                .getAsJsonObject().getAsJsonArray("results").get(0).getAsJsonObject();
+        assertEquals(1.75, written.getAsJsonObject("prim").get("total_cost").getAsDouble());
+        assertEquals(0.25, written.getAsJsonObject("kruskal").getAsJsonArray("mst_edges").get(0).getAsJsonObject()
+                .get("weight").getAsDouble());
+        assertTrue(written.getAsJsonObject("comparison").get("cost_equal").getAsBoolean());
+
+        // a long total past Long.MAX_VALUE is flagged, not wrapped, and written in full
+        Graph huge = Graph.builder(3).addEdge(0, 1, Long.MAX_VALUE).addEdge(1, 2, Long.MAX_VALUE).build();
+        java.math.BigInteger hugeCost = java.math.BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1);
+        for (MSTResult result : List.of(KruskalAlgorithm.findMST(huge), PrimAlgorithm.findMST(huge),
+                BoruvkaAlgorithm.findMST(huge))) {
+            assertTrue(result.hasCostOverflow(), result.getAlgorithm());
+            assertThrows(ArithmeticException.class, result::getTotalCost);
+            assertEquals(0x1p64, result.getTotalWeight(), 0x1p12, result.getAlgorithm());
+            assertEquals(hugeCost, huge.sumExactWeights(result.getEdgeIds()));
+        }
+        assertThrows(ArithmeticException.class, () -> huge.sumWeights(new int[]{0, 1}));
+        try (ResultWriter writer = new ResultWriter(out.toString(), dir.resolve("summary.csv").toString())) {
+            writer.write(Main.solveGraph(1, huge));
+        }
+        written = com.google.gson.JsonParser.parseString(Files.readString(out))
+                .getAsJsonObject().getAsJsonArray("results").get(0).getAsJsonObject();
+        assertEquals(hugeCost, written.getAsJsonObject("prim").get("total_cost").getAsBigInteger());
+        assertTrue(written.getAsJsonObject("comparison").get("cost_equal").getAsBoolean());
+        assertEquals(0, written.getAsJsonObject("comparison").get("cost_difference").getAsInt());
+    }
+
+    @Test
+    public void testGraphGeneratorAndScalingSuite() {
+        for (GraphGenerator.Topology topology : GraphGenerator.Topology.values()) {
+            Graph a = GraphGenerator.generate(topology, 400, 6, GraphGenerator.Weights.SKEWED, 7);
+            Graph b = GraphGenerator.generate(topology, 400, 6, GraphGenerator.Weights.SKEWED, 7);
+            assertEquals(a.getEdgeCount(), b.getEdgeCount(), topology.name());
+            for (int e = 0; e < a.getEdgeCount(); e++) {
+                assertEquals(a.getSource(e), b.getSource(e), topology.name());
+                assertEquals(a.getDestination(e), b.getDestination(e), topology.name());
+                assertEquals(a.getWeight(e), b.getWeight(e), topology.name());
+            }
+        }
+        assertEquals(1200, GraphGenerator.generate(GraphGenerator.Topology.ERDOS_RENYI, 400, 6,
+                GraphGenerator.Weights.UNIFORM_SMALL, 1).getEdgeCount());
+        assertEquals(2 * 20 * 19, GraphGenerator.generate(GraphGenerator.Topology.GRID, 400, 6,
+                GraphGenerator.Weights.UNIFORM_SMALL, 1).getEdgeCount());
+        assertEquals(400 * 399 / 2, GraphGenerator.generate(GraphGenerator.Topology.COMPLETE, 400, 6,
+                GraphGenerator.Weights.UNIFORM_SMALL, 1).getEdgeCount());
+        assertTrue(KruskalAlgorithm.findMST(GraphGenerator.generate(GraphGenerator.Topology.POWER_LAW, 400, 6,
+                GraphGenerator.Weights.UNIFORM_WIDE, 1)).isConnected());
+        MSTResult forest = KruskalAlgorithm.findMST(GraphGenerator.generate(GraphGenerator.Topology.DISCONNECTED,
+                400, 6, GraphGenerator.Weights.UNIFORM_SMALL, 1));
+        assertEquals(GraphGenerator.DISCONNECTED_COMPONENTS, forest.getComponentCount());
+        assertNotEquals(KruskalAlgorithm.findMST(GraphGenerator.generate(GraphGenerator.Topology.ERDOS_RENYI, 400, 6,
+                        GraphGenerator.Weights.UNIFORM_WIDE, 1)).getTotalCost(),
+                KruskalAlgorithm.findMST(GraphGenerator.generate(GraphGenerator.Topology.ERDOS_RENYI, 400, 6,
+                        GraphGenerator.Weights.UNIFORM_WIDE, 2)).getTotalCost());
+
+        // the suite throws on a cost mismatch; operation counts must grow about linearly in E
+        List<ScalingSuite.Point> points = ScalingSuite.run(List.of(GraphGenerator.Topology.values()), 1_000, 100_000, 8,
+                42, TimingHarness.SINGLE_RUN, point -> { });
+        assertEquals(GraphGenerator.Topology.values().length * 3 * 3, points.size());
+        for (ScalingSuite.Point point : points) {
+            assertFalse(point.isRegression(), ScalingSuite.format(point));
+        }
+    }
+
+    @Test
+    public void testDisjointSetsAgree() {
+        Graph graph = GraphGenerator.generate(GraphGenerator.Topology.DISCONNECTED, 200_000, 2,
+                GraphGenerator.Weights.UNIFORM_SMALL, 3);
+        DisjointSet sequential = new DisjointSet(graph.getVertices());
+        ConcurrentDisjointSet concurrent = new ConcurrentDisjointSet(graph.getVertices());
+        int joined = sequential.unionAll(graph);
+        assertEquals(joined, concurrent.unionAll(graph, ForkJoinPool.commonPool()));
+        assertEquals(graph.getVertices() - GraphGenerator.DISCONNECTED_COMPONENTS, joined);
+        assertEquals(GraphGenerator.DISCONNECTED_COMPONENTS, sequential.getSetCount());
+
+        int[] sequentialLabels = new int[graph.getVertices()];
+        int[] concurrentLabels = new int[graph.getVertices()];
+        assertEquals(sequential.labelComponents(sequentialLabels), concurrent.labelComponents(concurrentLabels));
+        assertArrayEquals(sequentialLabels, concurrentLabels);
+        assertTrue(sequential.connected(0, GraphGenerator.DISCONNECTED_COMPONENTS));
+        assertFalse(concurrent.connected(0, 1));
+        assertFalse(concurrent.union(0, GraphGenerator.DISCONNECTED_COMPONENTS));
+
+        // racing unions of the same pairs: each pair is joined exactly once
+        ConcurrentDisjointSet raced = new ConcurrentDisjointSet(10_000);
+        int merges = IntStream.range(0, 40_000).parallel().map(i -> raced.union(i % 5_000, 5_000 + i % 5_000) ? 1 : 0)
+                .sum();
+        assertEquals(5_000, merges);
+        assertTrue(raced.connected(17, 5_017));
+        assertFalse(raced.connected(17, 18));
+    }
+
+    @Test
+    public void testPrimQueuesAgree() {
+        // random operations against the 4-ary heap; keys are unique so extraction order is fixed
+        Random random = new Random(5);
+        int capacity = 2_000;
+        List<VertexQueue> queues = List.of(new IndexedMinHeap(capacity), new BucketQueue(capacity, -capacity, 4 * capacity),
+                new PairingHeap(capacity));
+        int[] keys = new int[capacity];
+        boolean[] used = new boolean[5 * capacity + 1];
+        for (int step = 0; step < 20_000; step++) {
+            int vertex = random.nextInt(capacity);
+            int key = -capacity + random.nextInt(5 * capacity + 1);
+            if (used[key + capacity] || (queues.get(0).contains(vertex) && key >= keys[vertex])) {
+                continue;
+            }
+            if (random.nextInt(3) == 0 && !queues.get(0).isEmpty()) {
+                int min = queues.get(0).extractMin();
+                used[keys[min] + capacity] = false;
+                for (VertexQueue queue : queues.subList(1, queues.size())) {
+                    assertEquals(min, queue.extractMin(), queue.getClass().getSimpleName());
+                }
+                continue;
+            }
+            boolean present = queues.get(0).contains(vertex);
+            if (present) {
+                used[keys[vertex] + capacity] = false;
+            }
+            used[key + capacity] = true;
+            keys[vertex] = key;
+            for (VertexQueue queue : queues) {
+                assertEquals(present, queue.contains(vertex));
+                if (present) {
+                    queue.decreaseKey(vertex, key);
+                } else {
+                    queue.insert(vertex, key);
+                }
+                assertEquals(key, queue.keyOf(vertex));
+            }
+        }
+        while (!queues.get(0).isEmpty()) {
+            int min = queues.get(0).extractMin();
+            for (VertexQueue queue : queues.subList(1, queues.size())) {
+                assertEquals(min, queue.extractMin(), queue.getClass().getSimpleName());
+            }
+        }
+        assertTrue(queues.get(2).isEmpty());
+
+        for (GraphGenerator.Topology topology : GraphGenerator.Topology.values()) {
+            Graph graph = GraphGenerator.generate(topology, 3_000, 8, GraphGenerator.Weights.UNIFORM_SMALL, 11);
+            long expected = KruskalAlgorithm.findMST(graph).getTotalCost();
+            for (PrimAlgorithm.Queue queue : PrimAlgorithm.Queue.values()) {
+                MSTResult result = PrimAlgorithm.findMST(graph, new CountingMetrics(), queue);
+                assertEquals(expected, result.getTotalCost(), topology + " " + queue);
+                assertTrue(isAcyclic(result.getEdges(), graph.getVertices()), topology + " " + queue);
+            }
+        }
+        assertInstanceOf(BucketQueue.class, PrimAlgorithm.Queue.AUTO.create(
+                GraphGenerator.generate(GraphGenerator.Topology.GRID, 100, 4, GraphGenerator.Weights.UNIFORM_SMALL, 1),
+                new SolverWorkspace()));
+        assertInstanceOf(IndexedMinHeap.class, PrimAlgorithm.Queue.AUTO.create(
+                GraphGenerator.generate(GraphGenerator.Topology.GRID, 100, 4, GraphGenerator.Weights.UNIFORM_WIDE, 1),
+                new SolverWorkspace()));
+    }
+
+    @Test
+    public void testWorkspaceSolvesAllocateOnlyTheResult() {
+        SolverWorkspace workspace = new SolverWorkspace();
+        TimingHarness harness = new TimingHarness(3, 5);
+        // a sparse graph takes sort-everything Kruskal, a dense one Filter-Kruskal
+        for (int degree : new int[]{4, 32}) {
+            for (GraphGenerator.Topology topology : List.of(GraphGenerator.Topology.ERDOS_RENYI,
+                    GraphGenerator.Topology.DISCONNECTED)) {
+                Graph graph = GraphGenerator.generate(topology, 4_000, degree, GraphGenerator.Weights.UNIFORM_WIDE, 5);
+                String label = topology + " degree " + degree;
+                MSTResult prim = PrimAlgorithm.findMST(graph);
+                MSTResult kruskal = KruskalAlgorithm.findMST(graph);
+
+                TimingHarness.Measurement<MSTResult> primRuns = harness.measure(
+                        () -> PrimAlgorithm.findMST(graph, MSTMetrics.NONE, workspace));
+                TimingHarness.Measurement<MSTResult> kruskalRuns = harness.measure(
+                        () -> KruskalAlgorithm.findMST(graph, MSTMetrics.NONE, workspace));
+                assertArrayEquals(prim.getEdgeIds(), primRuns.getResult().getEdgeIds(), label);
+                assertArrayEquals(kruskal.getEdgeIds(), kruskalRuns.getResult().getEdgeIds(), label);
+                assertArrayEquals(kruskal.getComponentIds(), kruskalRuns.getResult().getComponentIds(), label);
+                assertEquals(kruskal.getEdges().get(0).getWeight(), kruskalRuns.getResult().getEdges().get(0).getWeight());
+
+                // the edge ids and component ids the result keeps, plus the MSTResult and its counter arrays
+                long resultBytes = 4L * (prim.getEdgeIds().length + graph.getVertices()) + 1024;
+                assertTrue(primRuns.getAllocatedBytesPerRun() <= resultBytes,
+                        label + ": Prim allocated " + primRuns.getAllocatedBytesPerRun());
+                assertTrue(kruskalRuns.getAllocatedBytesPerRun() <= resultBytes,
+                        label + ": Kruskal allocated " + kruskalRuns.getAllocatedBytesPerRun());
+            }
+        }
+
+        // the pool hands back released workspaces and drops ones that grew too large
+        SolverWorkspace.Pool pool = new SolverWorkspace.Pool(1, 1 << 16);
+        SolverWorkspace pooled = pool.acquire();
+        pool.release(pooled);
+        assertSame(pooled, pool.acquire());
+        assertTrue(workspace.retainedBytes() > 1 << 16);
+        pool.release(workspace);
+        assertNotSame(workspace, pool.acquire());
+    }
 }
@@ -0,0 +1,161 @@
+package org.example;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MSTServerTest {
+    private MSTServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void start() throws IOException {
+        // a wide batch window makes micro-batching observable
+        server = new MSTServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2, 8,
+                Duration.ofMillis(20), TimingHarness.SINGLE_RUN, null).start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.close();
+    }
+
+    private HttpResponse<String> post(String contentType, HttpRequest.BodyPublisher body)
+            throws IOException, InterruptedException {
+        return post("/solve", contentType, body);
+    }
+
+    private HttpResponse<String> post(String path, String contentType, HttpRequest.BodyPublisher body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).header("Content-Type", contentType).POST(body).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+
+    private static JsonArray results(HttpResponse<String> response) {
+        assertEquals(200, response.statusCode(), response.body());
+        JsonObject body = JsonParser.parseString(response.body()).getAsJsonObject();
+        assertFalse(body.has("error"), response.body());
+        return body.getAsJsonArray("results");
+    }
+
+    // total cost from the selected engine's report
+    private static long cost(JsonArray results, int index) {
+        return results.get(index).getAsJsonObject().getAsJsonObject("mst").get("total_cost").getAsLong();
+    }
+
+    @Test
+    public void testSolvesJsonInputInGraphOrder() throws Exception {
+        List<Graph> graphs = JSONHandler.readGraphsFromJSON("data/input.json");
+        JsonArray results = results(post("application/json", HttpRequest.BodyPublishers.ofFile(Path.of("data/input.json"))));
+        assertEquals(graphs.size(), results.size());
+        for (int i = 0; i < graphs.size(); i++) {
+            assertEquals(i + 1, results.get(i).getAsJsonObject().get("graph_id").getAsInt());
+            JsonObject result = results.get(i).getAsJsonObject();
+            assertEquals(KruskalAlgorithm.findMST(graphs.get(i)).getTotalCost(), cost(results, i));
+            assertEquals(Main.SELECTOR.select(graphs.get(i)).getEngine().getName(),
+                    result.getAsJsonObject("solver_selection").get("algorithm").getAsString());
+            // only the selected engine runs unless the comparison is asked for
+            assertFalse(result.has("prim") || result.has("comparison"), result.toString());
+        }
+        assertEquals("ok", get("/health").body());
+    }
+
+    @Test
+    public void testMicroBatchesSmallGraphs() throws Exception {
+        StringBuilder json = new StringBuilder("{\"graphs\": [");
+        int count = 40;
+        for (int g = 0; g < count; g++) {
+            json.append(g == 0 ? "" : ", ").append("{\"vertices\": 3, \"edges\": [")
+                    .append("{\"source\": 0, \"destination\": 1, \"weight\": ").append(g + 1).append("}, ")
+                    .append("{\"source\": 1, \"destination\": 2, \"weight\": 1}, ")
+                    .append("{\"source\": 0, \"destination\": 2, \"weight\": 100}]}");
+        }
+        json.append("]}");
+        JsonArray results = results(post("application/json", HttpRequest.BodyPublishers.ofString(json.toString())));
+        assertEquals(count, results.size());
+        for (int g = 0; g < count; g++) {
+            assertEquals(g + 2, cost(results, g));
+        }
+
+        JsonObject stats = JsonParser.parseString(get("/stats").body()).getAsJsonObject();
+        assertEquals(count, stats.get("graphs").getAsInt());
+        assertEquals(count, stats.get("batched_graphs").getAsInt());
+        assertTrue(stats.get("batches").getAsInt() < count, stats.toString());
+    }
+
+    @Test
+    public void testSolvesBinaryInput(@TempDir Path dir) throws Exception {
+        // above the micro-batch size, so this graph gets a solver task of its own
+        Graph graph = GraphGenerator.generate(GraphGenerator.Topology.ERDOS_RENYI, 5_000, 8,
+                GraphGenerator.Weights.UNIFORM_SMALL, 9);
+        assertTrue(graph.getEdgeCount() > MSTServer.SMALL_GRAPH_EDGES);
+        Path file = dir.resolve("graph.mstg");
+        BinaryGraphFormat.write(graph, file);
+        JsonArray results = results(post(MSTServer.BINARY_CONTENT_TYPE, HttpRequest.BodyPublishers.ofFile(file)));
+        assertEquals(1, results.size());
+        assertEquals(KruskalAlgorithm.findMST(graph).getTotalCost(), cost(results, 0));
+
+        // the three-way comparison on request
+        results = results(post("/solve?compare=true", MSTServer.BINARY_CONTENT_TYPE,
+                HttpRequest.BodyPublishers.ofFile(file)));
+        JsonObject compared = results.get(0).getAsJsonObject();
+        assertEquals(KruskalAlgorithm.findMST(graph).getTotalCost(),
+                compared.getAsJsonObject("prim").get("total_cost").getAsLong());
+        assertTrue(compared.getAsJsonObject("comparison").get("cost_equal").getAsBoolean());
+    }
+
+    @Test
+    public void testEmptyGraphDoesNotEndTheStream() throws Exception {
+        JsonArray results = results(post("application/json", HttpRequest.BodyPublishers.ofString(
+                "{\"graphs\": [{\"vertices\": 2, \"edges\": [{\"source\": 0, \"destination\": 1, \"weight\": 3}]},"
+                        + " {\"edges\": []},"
+                        + " {\"vertices\": 2, \"edges\": [{\"source\": 0, \"destination\": 1, \"weight\": 5}]}]}")));
+        assertEquals(3, results.size());
+        assertEquals(3, cost(results, 0));
+        assertEquals(0, cost(results, 1));
+        assertEquals(5, cost(results, 2));
+    }
+
+    @Test
+    public void testRejectsBadRequests() throws Exception {
+        assertEquals(400, post("application/json", HttpRequest.BodyPublishers.ofString("{\"graphs\": [{\"vertices\": ")).statusCode());
+        assertEquals(400, post(MSTServer.BINARY_CONTENT_TYPE, HttpRequest.BodyPublishers.ofString("not a graph")).statusCode());
+        assertEquals(405, get("/solve").statusCode());
+
+        // an error after the first graph ends the stream with an error field
+        HttpResponse<String> partial = post("application/json", HttpRequest.BodyPublishers.ofString(
+                "{\"graphs\": [{\"vertices\": 2, \"edges\": [{\"source\": 0, \"destination\": 1, \"weight\": 3}]},"
+                        + " {\"vertices\": 2, \"edges\": [{\"source\": 0, \"destination\": 5, \"weight\": 1}]}]}"));
+        assertEquals(200, partial.statusCode());
+        JsonObject body = JsonParser.parseString(partial.body()).getAsJsonObject();
+        assertTrue(body.has("error"), partial.body());
+        assertTrue(body.getAsJsonArray("results").size() <= 1);
+    }
+}